@@ -0,0 +1,39 @@
+package me.BaddCamden.damagescaling.benchmark;
+
+import me.BaddCamden.damagescaling.DamageScalingPlugin;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads the plugin's bundled {@code config.yml} so benchmarks start from the shipped defaults.
+ */
+final class BenchmarkConfig {
+
+    /**
+     * Hidden constructor to prevent instantiation of this static utility class.
+     */
+    private BenchmarkConfig() {
+    }
+
+    /**
+     * Parses the default configuration bundled with the plugin jar.
+     *
+     * @return a fresh, mutable copy of the default configuration
+     */
+    static YamlConfiguration defaults() {
+        InputStream stream = DamageScalingPlugin.class.getClassLoader().getResourceAsStream("config.yml");
+        if (stream == null) {
+            throw new IllegalStateException("config.yml is missing from the DamageScaling jar");
+        }
+        try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return YamlConfiguration.loadConfiguration(reader);
+        } catch (java.io.IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package me.BaddCamden.damagescaling.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the usual JMH command line and, unless told
+ * otherwise, enables the GC profiler for allocation rates and writes JSON results to
+ * {@code jmh-results/DamageScaling-<version>.json} so runs of different releases can be compared
+ * with {@link CompareResults}.
+ */
+public final class BenchmarkMain {
+
+    /**
+     * Hidden constructor to prevent instantiation of this entry point.
+     */
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Runs the selected benchmarks.
+     *
+     * @param args JMH command line arguments
+     * @throws CommandLineOptionException when the arguments cannot be parsed
+     * @throws RunnerException            when a benchmark fails to run
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            File results = new File("jmh-results", "DamageScaling-" + version() + ".json");
+            if (!results.getParentFile().exists() && !results.getParentFile().mkdirs()) {
+                System.err.println("Could not create " + results.getParentFile().getAbsolutePath());
+            }
+            options.result(results.getPath());
+        }
+        new Runner(options.build()).run();
+    }
+
+    /**
+     * Reads the benchmarked plugin version from the jar manifest.
+     *
+     * @return plugin version, or {@code dev} when running from classes
+     */
+    private static String version() {
+        String version = BenchmarkMain.class.getPackage().getImplementationVersion();
+        return version != null ? version : "dev";
+    }
+}
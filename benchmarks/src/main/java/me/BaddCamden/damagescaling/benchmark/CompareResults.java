@@ -0,0 +1,123 @@
+package me.BaddCamden.damagescaling.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Prints a side-by-side comparison of two JMH JSON result files, typically the output of
+ * {@link BenchmarkMain} for two plugin releases. For each benchmark and parameter combination it
+ * shows the primary score, the relative change and the normalized allocation per operation.
+ *
+ * <p>Usage: {@code java -cp benchmarks.jar me.BaddCamden.damagescaling.benchmark.CompareResults
+ * <baseline.json> <candidate.json>}
+ */
+public final class CompareResults {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    /**
+     * Hidden constructor to prevent instantiation of this entry point.
+     */
+    private CompareResults() {
+    }
+
+    /**
+     * Compares the two result files given on the command line.
+     *
+     * @param args paths of the baseline and candidate result files
+     * @throws IOException when a result file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <candidate.json>");
+            System.exit(1);
+        }
+
+        Map<String, Score> baseline = read(Path.of(args[0]));
+        Map<String, Score> candidate = read(Path.of(args[1]));
+        Map<String, Score> keys = new TreeMap<>(baseline);
+        candidate.forEach(keys::putIfAbsent);
+
+        System.out.printf("%-70s %14s %14s %9s %12s %12s%n", "Benchmark", "Baseline", "Candidate", "Change",
+            "B/op base", "B/op cand");
+        for (String key : keys.keySet()) {
+            Score before = baseline.get(key);
+            Score after = candidate.get(key);
+            String unit = before != null ? before.unit : after.unit;
+            String change = before != null && after != null && before.score != 0.0D
+                ? String.format("%+8.1f%%", (after.score - before.score) / before.score * 100.0D)
+                : "n/a";
+            System.out.printf("%-70s %14s %14s %9s %12s %12s%n", key, format(before, unit), format(after, unit), change,
+                allocation(before), allocation(after));
+        }
+    }
+
+    /**
+     * Reads a JMH JSON result file into scores keyed by benchmark name and parameters.
+     *
+     * @param path result file
+     * @return scores keyed by {@code benchmark[param=value,...]}
+     * @throws IOException when the file cannot be read
+     */
+    private static Map<String, Score> read(Path path) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            JsonArray results = JsonParser.parseReader(reader).getAsJsonArray();
+            for (JsonElement element : results) {
+                JsonObject result = element.getAsJsonObject();
+                String name = result.get("benchmark").getAsString();
+                name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+                if (result.has("params")) {
+                    StringBuilder params = new StringBuilder();
+                    for (Map.Entry<String, JsonElement> param : result.getAsJsonObject("params").entrySet()) {
+                        params.append(params.length() == 0 ? "[" : ",").append(param.getKey()).append('=')
+                            .append(param.getValue().getAsString());
+                    }
+                    name = name + params.append(']');
+                }
+
+                JsonObject primary = result.getAsJsonObject("primaryMetric");
+                double allocation = Double.NaN;
+                if (result.has("secondaryMetrics")) {
+                    for (Map.Entry<String, JsonElement> metric : result.getAsJsonObject("secondaryMetrics").entrySet()) {
+                        if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                            allocation = metric.getValue().getAsJsonObject().get("score").getAsDouble();
+                        }
+                    }
+                }
+                scores.put(name, new Score(primary.get("score").getAsDouble(), primary.get("scoreUnit").getAsString(),
+                    allocation));
+            }
+        }
+        return scores;
+    }
+
+    private static String format(Score score, String unit) {
+        return score == null ? "-" : String.format("%.3f %s", score.score, unit);
+    }
+
+    private static String allocation(Score score) {
+        return score == null || Double.isNaN(score.allocation) ? "-" : String.format("%.1f", score.allocation);
+    }
+
+    /**
+     * Primary score and allocation of one benchmark result.
+     *
+     * @param score      primary metric score
+     * @param unit       unit of the primary score
+     * @param allocation normalized allocation in bytes per operation, or {@link Double#NaN}
+     */
+    private record Score(double score, String unit, double allocation) {
+    }
+}
@@ -0,0 +1,151 @@
+package me.BaddCamden.damagescaling.benchmark;
+
+import me.BaddCamden.damagescaling.DamageScalingPlugin;
+import me.BaddCamden.damagescaling.config.ScalingMode;
+import me.BaddCamden.damagescaling.listener.CombatListener;
+import me.BaddCamden.damagescaling.standin.StandInPlayer;
+import me.BaddCamden.damagescaling.standin.StandInPlugin;
+import me.BaddCamden.damagescaling.standin.StandInServer;
+import me.BaddCamden.damagescaling.standin.StandIns;
+import me.BaddCamden.damagescaling.storage.RealHealthStore;
+import org.bukkit.damage.DamageSource;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityRegainHealthEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the full {@link CombatListener} damage and regeneration handlers against an
+ * enabled plugin, including the stand-in player calls. Compare with
+ * {@link StandInOverheadBenchmark} to separate plugin cost from stand-in cost. The keyframe and
+ * formula modes use the curves from the default configuration, so a compiled formula can be
+ * compared with the built-in modes on the whole damage path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DamageFlowBenchmark {
+
+    private static final int PLAYERS = 64;
+    private static final double MAX_HEALTH = 20.0D;
+    private static final double DAMAGE = 1.5D;
+    private static final double HEAL = 1.0D;
+
+    @Param({"SQUARED_DIVIDED_BY_MAX", "LINEAR_FRACTION", "EXPONENTIAL_CURVE", "KEYFRAMES", "FORMULA"})
+    public ScalingMode mode;
+
+    private StandInServer server;
+    private DamageScalingPlugin plugin;
+    private CombatListener listener;
+    private RealHealthStore store;
+    private StandInPlayer[] players;
+    private EntityDamageEvent[] damageEvents;
+    private EntityRegainHealthEvent[] regainEvents;
+    private int cursor;
+
+    /**
+     * Enables the plugin on the stand-in server with {@link #PLAYERS} online players, ticks until the
+     * tick-spread refresh has reached every player and prepares one reusable event per player.
+     *
+     * @throws IOException when the temporary data folder cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = StandInServer.install();
+        server.clearPlayers();
+        players = new StandInPlayer[PLAYERS];
+        damageEvents = new EntityDamageEvent[PLAYERS];
+        regainEvents = new EntityRegainHealthEvent[PLAYERS];
+        DamageSource source = StandIns.stub(DamageSource.class);
+        for (int i = 0; i < PLAYERS; i++) {
+            players[i] = new StandInPlayer(UUID.randomUUID(), "player" + i, MAX_HEALTH);
+            server.addPlayer(players[i]);
+            damageEvents[i] = new EntityDamageEvent(players[i].asPlayer(), EntityDamageEvent.DamageCause.ENTITY_ATTACK,
+                source, DAMAGE);
+            regainEvents[i] = new EntityRegainHealthEvent(players[i].asPlayer(), HEAL,
+                EntityRegainHealthEvent.RegainReason.SATIATED);
+        }
+
+        plugin = StandInPlugin.create(server);
+        plugin.onEnable();
+        for (int i = 0; i < PLAYERS; i++) {
+            server.getScheduler().tick();
+        }
+        plugin.getConfig().set("scaling.priority", List.of(mode.name()));
+        plugin.getScalingService().reload(plugin.getConfig());
+        store = plugin.getRealHealthStore();
+        listener = new CombatListener(plugin);
+    }
+
+    /**
+     * Disables the plugin and takes its players offline.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        plugin.onDisable();
+        server.clearPlayers();
+    }
+
+    /**
+     * Handles one non-lethal damage event, topping the player back up when they run low.
+     *
+     * @return displayed health after the event, consumed by JMH
+     */
+    @Benchmark
+    public double onPlayerDamage() {
+        int index = next();
+        StandInPlayer player = players[index];
+        if (store.getRealHealth(player.asPlayer()) <= DAMAGE) {
+            store.setRealHealth(player.asPlayer(), MAX_HEALTH);
+        }
+        EntityDamageEvent event = damageEvents[index];
+        event.setCancelled(false);
+        event.setDamage(DAMAGE);
+        listener.onPlayerDamage(event);
+        return player.getHealth();
+    }
+
+    /**
+     * Handles one regeneration event, knocking the player back down when they reach full health.
+     *
+     * @return displayed health after the event, consumed by JMH
+     */
+    @Benchmark
+    public double onPlayerRegain() {
+        int index = next();
+        StandInPlayer player = players[index];
+        if (store.getRealHealth(player.asPlayer()) >= MAX_HEALTH) {
+            store.setRealHealth(player.asPlayer(), 1.0D);
+        }
+        EntityRegainHealthEvent event = regainEvents[index];
+        event.setCancelled(false);
+        event.setAmount(HEAL);
+        listener.onPlayerRegain(event);
+        return player.getHealth();
+    }
+
+    private int next() {
+        int index = cursor;
+        cursor = index + 1 == PLAYERS ? 0 : index + 1;
+        return index;
+    }
+}
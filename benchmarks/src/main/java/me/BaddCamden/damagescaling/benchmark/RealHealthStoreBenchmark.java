@@ -0,0 +1,137 @@
+package me.BaddCamden.damagescaling.benchmark;
+
+import me.BaddCamden.damagescaling.DamageScalingPlugin;
+import me.BaddCamden.damagescaling.standin.StandInPlayer;
+import me.BaddCamden.damagescaling.standin.StandInPlugin;
+import me.BaddCamden.damagescaling.standin.StandInServer;
+import me.BaddCamden.damagescaling.storage.HealthSlot;
+import me.BaddCamden.damagescaling.storage.RealHealthStore;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link RealHealthStore} reads and writes, both from a single thread and with several
+ * threads hitting the same store at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RealHealthStoreBenchmark {
+
+    private static final double MAX_HEALTH = 20.0D;
+
+    @Param({"100", "1000"})
+    public int playerCount;
+
+    private DamageScalingPlugin plugin;
+    private RealHealthStore store;
+    private Player[] players;
+
+    /**
+     * Creates a store holding {@link #playerCount} tracked players.
+     *
+     * @throws IOException when the temporary data folder cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StandInServer server = StandInServer.install();
+        plugin = StandInPlugin.create(server);
+        store = new RealHealthStore(plugin);
+        players = new Player[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            players[i] = new StandInPlayer(UUID.randomUUID(), "player" + i, MAX_HEALTH).asPlayer();
+            store.load(players[i]);
+        }
+    }
+
+    /**
+     * Stops the store's background writer.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close(0L);
+    }
+
+    /**
+     * Per-thread cursor choosing which player each operation targets.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        int next(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    /**
+     * Reads a player's real health through the convenience accessor.
+     *
+     * @param cursor per-thread cursor
+     * @return real health, consumed by JMH
+     */
+    @Benchmark
+    public double getRealHealth(Cursor cursor) {
+        return store.getRealHealth(players[cursor.next(playerCount)]);
+    }
+
+    /**
+     * Applies damage the way the listener does: resolve the slot once, then read and write it.
+     *
+     * @param cursor per-thread cursor
+     * @return updated real health, consumed by JMH
+     */
+    @Benchmark
+    public double readModifyWrite(Cursor cursor) {
+        HealthSlot slot = store.slot(players[cursor.next(playerCount)]);
+        double updated = slot.getRealHealth() - 1.0D;
+        slot.setRealHealth(updated <= 0.0D ? MAX_HEALTH : updated);
+        return updated;
+    }
+
+    /**
+     * Reads real health from four threads at once.
+     *
+     * @param cursor per-thread cursor
+     * @return real health, consumed by JMH
+     */
+    @Benchmark
+    @Threads(4)
+    public double contendedGetRealHealth(Cursor cursor) {
+        return getRealHealth(cursor);
+    }
+
+    /**
+     * Applies damage from four threads at once.
+     *
+     * @param cursor per-thread cursor
+     * @return updated real health, consumed by JMH
+     */
+    @Benchmark
+    @Threads(4)
+    public double contendedReadModifyWrite(Cursor cursor) {
+        return readModifyWrite(cursor);
+    }
+}
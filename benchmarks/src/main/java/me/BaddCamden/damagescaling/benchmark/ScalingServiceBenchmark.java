@@ -0,0 +1,68 @@
+package me.BaddCamden.damagescaling.benchmark;
+
+import me.BaddCamden.damagescaling.config.ScalingMode;
+import me.BaddCamden.damagescaling.config.ScalingService;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ScalingService#computeDisplayHealth(double, double)} for every built-in
+ * {@link ScalingMode}, cycling through a spread of real health values so the curve cannot be
+ * constant-folded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ScalingServiceBenchmark {
+
+    private static final int SAMPLES = 1024;
+    private static final double MAX_HEALTH = 20.0D;
+
+    @Param({"SQUARED_DIVIDED_BY_MAX", "LINEAR_FRACTION", "EXPONENTIAL_CURVE", "KEYFRAMES", "FORMULA"})
+    public ScalingMode mode;
+
+    private final double[] realHealth = new double[SAMPLES];
+    private ScalingService scalingService;
+    private int cursor;
+
+    /**
+     * Configures the service for the benchmarked mode with the default options.
+     */
+    @Setup
+    public void setUp() {
+        YamlConfiguration configuration = BenchmarkConfig.defaults();
+        configuration.set("scaling.priority", List.of(mode.name()));
+        scalingService = new ScalingService();
+        scalingService.reload(configuration);
+        for (int i = 0; i < SAMPLES; i++) {
+            realHealth[i] = MAX_HEALTH * i / (SAMPLES - 1);
+        }
+    }
+
+    /**
+     * Computes one display health value.
+     *
+     * @return display health, consumed by JMH
+     */
+    @Benchmark
+    public double computeDisplayHealth() {
+        int index = cursor++ & (SAMPLES - 1);
+        return scalingService.computeDisplayHealth(realHealth[index], MAX_HEALTH);
+    }
+}
@@ -0,0 +1,59 @@
+package me.BaddCamden.damagescaling.benchmark;
+
+import me.BaddCamden.damagescaling.HealthUtil;
+import me.BaddCamden.damagescaling.standin.StandInPlayer;
+import me.BaddCamden.damagescaling.standin.StandInServer;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline cost of the stand-in player calls made by the damage flow. Proxy dispatch boxes
+ * arguments and return values, so these numbers, including their allocation rate, should be
+ * subtracted when reading {@link DamageFlowBenchmark}; a real server does not pay them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StandInOverheadBenchmark {
+
+    private Player player;
+    private double health;
+
+    /**
+     * Creates the stand-in player.
+     */
+    @Setup
+    public void setUp() {
+        StandInServer.install();
+        player = new StandInPlayer(UUID.randomUUID(), "overhead", 20.0D).asPlayer();
+    }
+
+    /**
+     * Reads and writes health once and resolves the maximum health attribute once, mirroring the
+     * player calls of a single damage event.
+     *
+     * @return value read back, consumed by JMH
+     */
+    @Benchmark
+    public double playerCalls() {
+        double max = HealthUtil.getMaxHealth(player);
+        health = health >= max ? 1.0D : health + 0.5D;
+        player.setHealth(health);
+        return player.getHealth();
+    }
+}
@@ -0,0 +1,228 @@
+package me.BaddCamden.damagescaling.simulation;
+
+import me.BaddCamden.damagescaling.DamageScalingPlugin;
+import me.BaddCamden.damagescaling.listener.DamageScalingListener;
+import me.BaddCamden.damagescaling.standin.StandInPlayer;
+import me.BaddCamden.damagescaling.standin.StandInPlugin;
+import me.BaddCamden.damagescaling.standin.StandInServer;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the shared storage backend by moving one player back and forth between two plugin
+ * instances that use the same shared directory, as two servers behind a proxy would. Each round the
+ * player joins the next server while still online on the previous one: the pre-login runs on its
+ * own thread and has to wait until the previous server has saved and released the player. The real
+ * health set on one server must arrive on the other. A final round refuses the login on the other
+ * server after its pre-login, as a whitelist would, and checks that the player can then log back in
+ * on the first server without waiting for the handoff timeout.
+ *
+ * <p>Usage: {@code java -cp benchmarks.jar me.BaddCamden.damagescaling.simulation.HandoffCheck
+ * [--rounds N] [--transfer-delay-ms N]}, where the transfer delay is how long the previous server
+ * keeps the player after the next one started logging them in. Reports the handoff latency, from the
+ * quit on the previous server to the end of the pre-login on the next, and exits with status 1 when
+ * a value was lost or the relogin after the refused login waited.
+ */
+public final class HandoffCheck {
+
+    private static final int DEFAULT_ROUNDS = 50;
+    private static final long DEFAULT_TRANSFER_DELAY_MILLIS = 20L;
+    private static final double MAX_HEALTH = 20.0D;
+    private static final long HANDOFF_TIMEOUT_MILLIS = 2000L;
+
+    /**
+     * Hidden constructor to prevent instantiation of this entry point.
+     */
+    private HandoffCheck() {
+    }
+
+    /**
+     * Runs the handoff rounds described by the command line.
+     *
+     * @param args command line arguments
+     * @throws IOException when the data folders cannot be created
+     */
+    public static void main(String[] args) throws IOException {
+        int rounds = DEFAULT_ROUNDS;
+        long transferDelay = DEFAULT_TRANSFER_DELAY_MILLIS;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--rounds" -> rounds = Integer.parseInt(value);
+                case "--transfer-delay-ms" -> transferDelay = Long.parseLong(value);
+                default -> usage("Unknown option " + option);
+            }
+        }
+        if (rounds <= 0 || transferDelay < 0L) {
+            usage("--rounds must be positive and --transfer-delay-ms must not be negative");
+        }
+
+        StandInServer server = StandInServer.install();
+        server.clearPlayers();
+        File shared = Files.createTempDirectory("damagescaling-shared").toFile();
+        DamageScalingPlugin[] plugins = {enable(server, shared), enable(server, shared)};
+        DamageScalingListener[] listeners = {new DamageScalingListener(plugins[0]), new DamageScalingListener(plugins[1])};
+
+        SplittableRandom random = new SplittableRandom(42L);
+        StandInPlayer player = new StandInPlayer(new UUID(random.nextLong(), random.nextLong()), "handoff", MAX_HEALTH);
+        preLogin(listeners[0], player);
+        join(server, listeners[0], player);
+
+        long[] latencies = new long[rounds];
+        int failures = 0;
+        for (int round = 0; round < rounds; round++) {
+            int from = round % 2;
+            int to = 1 - from;
+            double expected = Math.rint(random.nextDouble(1.0D, MAX_HEALTH) * 100.0D) / 100.0D;
+            plugins[from].getRealHealthStore().setRealHealth(player.asPlayer(), expected);
+
+            DamageScalingListener next = listeners[to];
+            CompletableFuture<Long> login = CompletableFuture.supplyAsync(() -> {
+                preLogin(next, player);
+                return System.nanoTime();
+            });
+            sleep(transferDelay);
+            long quit = System.nanoTime();
+            listeners[from].onPlayerQuit(new PlayerQuitEvent(player.asPlayer(), ""));
+            server.removePlayer(player);
+            latencies[round] = login.join() - quit;
+
+            join(server, listeners[to], player);
+            double actual = plugins[to].getRealHealthStore().getRealHealth(player.asPlayer());
+            if (actual != expected) {
+                failures++;
+                System.err.printf("Round %d: expected %.2f on server %d but found %.2f%n", round, expected, to, actual);
+            }
+        }
+
+        int last = rounds % 2;
+        double expected = 7.5D;
+        plugins[last].getRealHealthStore().setRealHealth(player.asPlayer(), expected);
+        listeners[last].onPlayerQuit(new PlayerQuitEvent(player.asPlayer(), ""));
+        server.removePlayer(player);
+        preLogin(listeners[1 - last], player);
+        PlayerLoginEvent refused = new PlayerLoginEvent(player.asPlayer(), "localhost",
+            InetAddress.getLoopbackAddress());
+        refused.disallow(PlayerLoginEvent.Result.KICK_WHITELIST, "Not whitelisted");
+        listeners[1 - last].onPlayerLogin(refused);
+        long start = System.nanoTime();
+        preLogin(listeners[last], player);
+        long relogin = System.nanoTime() - start;
+        join(server, listeners[last], player);
+        double actual = plugins[last].getRealHealthStore().getRealHealth(player.asPlayer());
+        if (actual != expected || relogin >= TimeUnit.MILLISECONDS.toNanos(HANDOFF_TIMEOUT_MILLIS / 2L)) {
+            failures++;
+            System.err.printf("Refused login: expected %.2f after a prompt relogin but found %.2f after %.2f ms%n",
+                expected, actual, millis(relogin));
+        }
+
+        for (DamageScalingPlugin plugin : plugins) {
+            plugin.onDisable();
+        }
+        server.clearPlayers();
+
+        Arrays.sort(latencies);
+        System.out.printf("%d handoffs and one refused login, transfer delay %d ms, %d failed%n", rounds,
+            transferDelay, failures);
+        System.out.printf("Handoff latency: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+            millis(latencies[rounds / 2]), millis(latencies[Math.min(rounds - 1, rounds * 99 / 100)]),
+            millis(latencies[rounds - 1]));
+        System.out.printf("Relogin after a refused login: %.2f ms%n", millis(relogin));
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Enables a plugin instance with its own data folder and the shared backend on a common
+     * directory.
+     *
+     * @param server stand-in server the plugin is bound to
+     * @param shared directory shared by every instance
+     * @return enabled plugin
+     * @throws IOException when the data folder cannot be created
+     */
+    private static DamageScalingPlugin enable(StandInServer server, File shared) throws IOException {
+        DamageScalingPlugin plugin = StandInPlugin.create(server);
+        plugin.saveDefaultConfig();
+        plugin.getConfig().set("storage.backend", "shared");
+        plugin.getConfig().set("storage.shared.directory", shared.getAbsolutePath());
+        plugin.getConfig().set("storage.shared.handoff-timeout-millis", HANDOFF_TIMEOUT_MILLIS);
+        plugin.saveConfig();
+        plugin.onEnable();
+        return plugin;
+    }
+
+    /**
+     * Runs a player's pre-login on one instance, as the server's login thread would.
+     *
+     * @param listener instance's lifecycle listener
+     * @param player   player logging in
+     */
+    private static void preLogin(DamageScalingListener listener, StandInPlayer player) {
+        listener.onPlayerPreLogin(new AsyncPlayerPreLoginEvent(player.asPlayer().getName(),
+            InetAddress.getLoopbackAddress(), player.getUniqueId(), false));
+    }
+
+    /**
+     * Joins a player on one instance at full vanilla health and runs the tasks the join scheduled.
+     *
+     * @param server   stand-in server
+     * @param listener instance's lifecycle listener
+     * @param player   player joining
+     */
+    private static void join(StandInServer server, DamageScalingListener listener, StandInPlayer player) {
+        player.resetHealth(MAX_HEALTH);
+        server.addPlayer(player);
+        listener.onPlayerJoin(new PlayerJoinEvent(player.asPlayer(), ""));
+        server.getScheduler().tick();
+    }
+
+    /**
+     * Sleeps without propagating interruption as an exception.
+     *
+     * @param millis time to sleep
+     */
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds.
+     *
+     * @param nanos duration in nanoseconds
+     * @return duration in milliseconds
+     */
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1L);
+    }
+
+    /**
+     * Prints an error and the usage line, then exits.
+     *
+     * @param error problem with the command line
+     */
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: HandoffCheck [--rounds N] [--transfer-delay-ms N]");
+        System.exit(1);
+    }
+}
@@ -0,0 +1,68 @@
+package me.BaddCamden.damagescaling.simulation;
+
+import java.util.Locale;
+
+/**
+ * Scripted workload a {@link Simulation} can run for a number of ticks. Players who die in any phase
+ * respawn on the following tick.
+ */
+public enum Phase {
+
+    /**
+     * Every remaining player logs in, spread evenly across the phase.
+     */
+    JOIN_STORM("join"),
+
+    /**
+     * Sustained combat: each living player is hit with a fixed probability every tick, so players
+     * who lose all their health die along the way.
+     */
+    COMBAT("combat"),
+
+    /**
+     * Natural regeneration for every living player below maximum health.
+     */
+    REGEN("regen"),
+
+    /**
+     * Lethal damage for a share of the online players every tick, followed by their respawns.
+     */
+    DEATHS("deaths"),
+
+    /**
+     * Every online player quits, spread evenly across the phase.
+     */
+    MASS_QUIT("quit");
+
+    private final String id;
+
+    Phase(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns the short name used for this phase in workload scripts and reports.
+     *
+     * @return phase identifier
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Looks up a phase by its short name or constant name.
+     *
+     * @param name phase identifier, case insensitive
+     * @return matching phase
+     * @throws IllegalArgumentException when no phase has that name
+     */
+    public static Phase byId(String name) {
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        for (Phase phase : values()) {
+            if (phase.id.equals(normalized) || phase.name().toLowerCase(Locale.ROOT).equals(normalized)) {
+                return phase;
+            }
+        }
+        throw new IllegalArgumentException("Unknown phase: " + name);
+    }
+}
@@ -0,0 +1,403 @@
+package me.BaddCamden.damagescaling.simulation;
+
+import me.BaddCamden.damagescaling.DamageScalingPlugin;
+import me.BaddCamden.damagescaling.listener.CombatListener;
+import me.BaddCamden.damagescaling.listener.DamageScalingListener;
+import me.BaddCamden.damagescaling.metrics.PluginMetrics;
+import me.BaddCamden.damagescaling.standin.StandInPlayer;
+import me.BaddCamden.damagescaling.standin.StandInPlugin;
+import me.BaddCamden.damagescaling.standin.StandInServer;
+import me.BaddCamden.damagescaling.standin.StandIns;
+import org.bukkit.damage.DamageSource;
+import org.bukkit.event.Event;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityRegainHealthEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Runs {@link DamageScalingPlugin} on the {@link StandInServer} and feeds its listeners scripted
+ * workloads one tick at a time. Each tick the harness plays the server: it builds the events for the
+ * current {@link Phase}, dispatches them to {@link DamageScalingListener} and {@link CombatListener},
+ * applies whatever vanilla would do with events the plugin left alone, and advances the scheduler so
+ * the plugin's own tasks run. Only the dispatch and the scheduled tasks are measured; building
+ * events and the vanilla bookkeeping are not.
+ *
+ * <p>Pre-login events are dispatched outside the measured section because a real server fires them
+ * on its asynchronous login threads. Allocation is measured on the simulation thread, which plays the
+ * server thread, and includes the stand-in players' own boxing; the storage writer's allocations are
+ * not counted, but its output is, through {@link PluginMetrics#getBytesWritten()}.
+ */
+public final class Simulation {
+
+    private static final double MAX_HEALTH = 20.0D;
+    private static final double HIT_CHANCE = 0.25D;
+    private static final double MIN_HIT = 0.5D;
+    private static final double MAX_HIT = 4.0D;
+    private static final double REGEN_CHANCE = 0.5D;
+    private static final double REGEN_AMOUNT = 1.0D;
+    private static final double DEATH_SHARE = 0.05D;
+    private static final double LETHAL_DAMAGE = 1000.0D;
+
+    private final StandInServer server;
+    private final DamageScalingPlugin plugin;
+    private final StandInPlayer[] players;
+    private final Map<UUID, StandInPlayer> byId = new HashMap<>();
+    private final SplittableRandom random;
+    private final DamageSource source = StandIns.stub(DamageSource.class);
+    private final com.sun.management.ThreadMXBean threads;
+    private final ArrayDeque<StandInPlayer> offline = new ArrayDeque<>();
+    private final List<StandInPlayer> online = new ArrayList<>();
+    private final Set<StandInPlayer> dead = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<StandInPlayer> respawning = new ArrayList<>();
+    private final List<Event> events = new ArrayList<>();
+    private DamageScalingListener lifecycle;
+    private CombatListener combat;
+    private long tick;
+    private long handlerNanos;
+    private long allocatedBytes;
+
+    /**
+     * Creates a simulation over a fixed population of players, all initially offline.
+     *
+     * @param playerCount number of distinct players the workload can log in
+     * @param seed        seed for player IDs and every random decision, so runs are repeatable
+     * @param overrides   configuration values written to {@code config.yml} before the plugin enables
+     * @throws IOException when the plugin's temporary data folder cannot be created
+     */
+    public Simulation(int playerCount, long seed, Map<String, Object> overrides) throws IOException {
+        this.server = StandInServer.install();
+        this.random = new SplittableRandom(seed);
+        this.players = new StandInPlayer[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            players[i] = new StandInPlayer(new UUID(random.nextLong(), random.nextLong()), "sim" + i, MAX_HEALTH);
+            byId.put(players[i].getUniqueId(), players[i]);
+            offline.add(players[i]);
+        }
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        server.clearPlayers();
+        this.plugin = StandInPlugin.create(server);
+        plugin.saveDefaultConfig();
+        overrides.forEach(plugin.getConfig()::set);
+        plugin.saveConfig();
+    }
+
+    /**
+     * Enables the plugin and binds fresh listener instances to it.
+     */
+    public void start() {
+        plugin.onEnable();
+        lifecycle = new DamageScalingListener(plugin);
+        combat = new CombatListener(plugin);
+    }
+
+    /**
+     * Runs every step of a workload, reporting each tick as it completes.
+     *
+     * @param workload phases to run in order
+     * @param sink     receiver of one sample per tick
+     */
+    public void run(Workload workload, Consumer<TickSample> sink) {
+        for (Workload.Step step : workload.getSteps()) {
+            for (int elapsed = 0; elapsed < step.ticks(); elapsed++) {
+                sink.accept(tick(step.phase(), step.ticks() - elapsed));
+            }
+        }
+    }
+
+    /**
+     * Disables the plugin, which restores and saves every player still online and flushes storage.
+     *
+     * @return sample covering the shutdown, with its duration reported as task time
+     */
+    public TickSample shutdown() {
+        long updatesBefore = healthUpdates();
+        long bytesBefore = plugin.getMetrics().getBytesWritten();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        plugin.onDisable();
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        TickSample sample = new TickSample(++tick, "shutdown", online.size(), 0, 0L, elapsed, allocated,
+            plugin.getMetrics().getBytesWritten() - bytesBefore, healthUpdates() - updatesBefore, 0);
+        server.clearPlayers();
+        return sample;
+    }
+
+    /**
+     * Simulates one tick of a phase.
+     *
+     * @param phase     workload to apply
+     * @param ticksLeft ticks remaining in the phase, including this one
+     * @return measurements for the tick
+     */
+    private TickSample tick(Phase phase, int ticksLeft) {
+        PluginMetrics metrics = plugin.getMetrics();
+        long bytesBefore = metrics.getBytesWritten();
+        long updatesBefore = healthUpdates();
+        handlerNanos = 0L;
+        allocatedBytes = 0L;
+        int dispatched = 0;
+
+        dispatched += respawn();
+        switch (phase) {
+            case JOIN_STORM -> dispatched += join(ceilDiv(offline.size(), ticksLeft));
+            case COMBAT -> dispatched += combat();
+            case REGEN -> dispatched += regen();
+            case DEATHS -> dispatched += kill((int) Math.ceil((online.size() - dead.size()) * DEATH_SHARE));
+            case MASS_QUIT -> dispatched += quit(ceilDiv(online.size(), ticksLeft));
+        }
+
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        server.getScheduler().tick();
+        long taskNanos = System.nanoTime() - start;
+        allocatedBytes += threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        return new TickSample(++tick, phase.getId(), online.size(), dispatched, handlerNanos, taskNanos,
+            allocatedBytes, metrics.getBytesWritten() - bytesBefore, healthUpdates() - updatesBefore,
+            plugin.getRealHealthStore().getPendingWriteCount());
+    }
+
+    /**
+     * Respawns the players who died during the previous tick, at full health as vanilla does.
+     *
+     * @return number of events dispatched
+     */
+    private int respawn() {
+        for (StandInPlayer player : respawning) {
+            player.resetHealth(MAX_HEALTH);
+            dead.remove(player);
+            events.add(new PlayerRespawnEvent(player.asPlayer(), null, false, false, false,
+                PlayerRespawnEvent.RespawnReason.DEATH));
+        }
+        respawning.clear();
+        return dispatch();
+    }
+
+    /**
+     * Logs in players who are currently offline, running their pre-login outside the measurement.
+     *
+     * @param count maximum number of players to log in
+     * @return number of events dispatched
+     */
+    private int join(int count) {
+        InetAddress address = InetAddress.getLoopbackAddress();
+        for (int i = 0; i < count && !offline.isEmpty(); i++) {
+            StandInPlayer player = offline.poll();
+            player.resetHealth(MAX_HEALTH);
+            lifecycle.onPlayerPreLogin(new AsyncPlayerPreLoginEvent(player.asPlayer().getName(), address,
+                player.getUniqueId(), false));
+            server.addPlayer(player);
+            online.add(player);
+            events.add(new PlayerJoinEvent(player.asPlayer(), ""));
+        }
+        return dispatch();
+    }
+
+    /**
+     * Hits a random subset of the living players, then dispatches deaths for those who lost all
+     * their health.
+     *
+     * @return number of events dispatched
+     */
+    private int combat() {
+        for (StandInPlayer player : online) {
+            if (!dead.contains(player) && random.nextDouble() < HIT_CHANCE) {
+                events.add(damage(player, random.nextDouble(MIN_HIT, MAX_HIT)));
+            }
+        }
+        return dispatch() + deaths();
+    }
+
+    /**
+     * Regenerates living players who are below maximum health.
+     *
+     * @return number of events dispatched
+     */
+    private int regen() {
+        for (StandInPlayer player : online) {
+            if (!dead.contains(player) && player.getHealth() < MAX_HEALTH && random.nextDouble() < REGEN_CHANCE) {
+                events.add(new EntityRegainHealthEvent(player.asPlayer(), REGEN_AMOUNT,
+                    EntityRegainHealthEvent.RegainReason.SATIATED));
+            }
+        }
+        return dispatch();
+    }
+
+    /**
+     * Deals lethal damage to randomly chosen living players and dispatches their deaths.
+     *
+     * @param count number of players to kill
+     * @return number of events dispatched
+     */
+    private int kill(int count) {
+        Set<StandInPlayer> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int attempts = 0; targets.size() < count && attempts < online.size() * 2; attempts++) {
+            StandInPlayer player = online.get(random.nextInt(online.size()));
+            if (!dead.contains(player) && targets.add(player)) {
+                events.add(damage(player, LETHAL_DAMAGE));
+            }
+        }
+        return dispatch() + deaths();
+    }
+
+    /**
+     * Logs out online players, dead or alive.
+     *
+     * @param count maximum number of players to log out
+     * @return number of events dispatched
+     */
+    private int quit(int count) {
+        List<StandInPlayer> leaving = new ArrayList<>();
+        for (int i = 0; i < count && !online.isEmpty(); i++) {
+            StandInPlayer player = online.remove(online.size() - 1);
+            leaving.add(player);
+            events.add(new PlayerQuitEvent(player.asPlayer(), ""));
+        }
+        int dispatched = dispatch();
+        for (StandInPlayer player : leaving) {
+            server.removePlayer(player);
+            dead.remove(player);
+            respawning.remove(player);
+            offline.add(player);
+        }
+        return dispatched;
+    }
+
+    /**
+     * Dispatches death events for players whose health reached zero during the current tick.
+     *
+     * @return number of events dispatched
+     */
+    private int deaths() {
+        for (StandInPlayer player : online) {
+            if (player.getHealth() <= 0.0D && dead.add(player)) {
+                respawning.add(player);
+                events.add(new PlayerDeathEvent(player.asPlayer(), source, new ArrayList<>(), 0, ""));
+            }
+        }
+        return dispatch();
+    }
+
+    /**
+     * Creates a damage event from a generic attack.
+     *
+     * @param player player being hit
+     * @param amount damage dealt
+     * @return new damage event
+     */
+    private EntityDamageEvent damage(StandInPlayer player, double amount) {
+        return new EntityDamageEvent(player.asPlayer(), EntityDamageEvent.DamageCause.ENTITY_ATTACK, source, amount);
+    }
+
+    /**
+     * Sends every queued event to its handler, measuring time and allocation, then applies what
+     * vanilla does with damage and healing the plugin did not absorb.
+     *
+     * @return number of events dispatched
+     */
+    private int dispatch() {
+        int count = events.size();
+        if (count == 0) {
+            return 0;
+        }
+
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            switch (events.get(i)) {
+                case EntityDamageEvent event -> combat.onPlayerDamage(event);
+                case EntityRegainHealthEvent event -> combat.onPlayerRegain(event);
+                case PlayerJoinEvent event -> lifecycle.onPlayerJoin(event);
+                case PlayerQuitEvent event -> lifecycle.onPlayerQuit(event);
+                case PlayerDeathEvent event -> lifecycle.onPlayerDeath(event);
+                case PlayerRespawnEvent event -> lifecycle.onPlayerRespawn(event);
+                default -> throw new IllegalStateException("No handler for " + events.get(i).getEventName());
+            }
+        }
+        handlerNanos += System.nanoTime() - start;
+        allocatedBytes += threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        for (int i = 0; i < count; i++) {
+            applyVanilla(events.get(i));
+        }
+        events.clear();
+        return count;
+    }
+
+    /**
+     * Applies the health change vanilla would make for an event the plugin neither cancelled nor
+     * zeroed, so the simulation stays faithful when scaling is off or a player is not scaled yet.
+     *
+     * @param event dispatched event
+     */
+    private void applyVanilla(Event event) {
+        if (event instanceof EntityDamageEvent damage && !damage.isCancelled() && damage.getDamage() > 0.0D) {
+            StandInPlayer player = find(damage.getEntity().getUniqueId());
+            player.resetHealth(Math.max(0.0D, player.getHealth() - damage.getFinalDamage()));
+        } else if (event instanceof EntityRegainHealthEvent regain && !regain.isCancelled()
+            && regain.getAmount() > 0.0D) {
+            StandInPlayer player = find(regain.getEntity().getUniqueId());
+            player.resetHealth(Math.min(MAX_HEALTH, player.getHealth() + regain.getAmount()));
+        }
+    }
+
+    /**
+     * Finds the stand-in behind a player.
+     *
+     * @param uniqueId player's unique ID
+     * @return stand-in player
+     * @throws IllegalStateException when the player is not part of the simulation
+     */
+    private StandInPlayer find(UUID uniqueId) {
+        StandInPlayer player = byId.get(uniqueId);
+        if (player == null) {
+            throw new IllegalStateException("Player " + uniqueId + " is not simulated");
+        }
+        return player;
+    }
+
+    /**
+     * Sums the {@code setHealth} calls made on every simulated player so far.
+     *
+     * @return total health updates
+     */
+    private long healthUpdates() {
+        long total = 0L;
+        for (StandInPlayer player : players) {
+            total += player.getHealthUpdates();
+        }
+        return total;
+    }
+
+    /**
+     * Divides rounding up, spreading a remaining amount of work over the remaining ticks.
+     *
+     * @param value   amount of work left
+     * @param divisor ticks left, at least one
+     * @return work to do this tick
+     */
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
@@ -0,0 +1,119 @@
+package me.BaddCamden.damagescaling.simulation;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line entry point of the load simulation. Runs a {@link Workload} against the plugin on
+ * stand-in players and prints a per-phase summary.
+ *
+ * <p>Usage: {@code java -cp benchmarks.jar me.BaddCamden.damagescaling.simulation.SimulationMain
+ * [--players N] [--seed N] [--workload phase:ticks,...] [--csv file] [--set key=value]...}
+ *
+ * <p>{@code --set} writes a value to the plugin's {@code config.yml} before it enables and may be
+ * repeated, for example {@code --set storage.backend=mapped --set display.coalesce-updates=false}.
+ * Values are parsed as YAML, so {@code --set "scaling.priority=[LINEAR_FRACTION]"} sets a list.
+ */
+public final class SimulationMain {
+
+    private static final int DEFAULT_PLAYERS = 200;
+    private static final long DEFAULT_SEED = 42L;
+
+    /**
+     * Hidden constructor to prevent instantiation of this entry point.
+     */
+    private SimulationMain() {
+    }
+
+    /**
+     * Runs the simulation described by the command line.
+     *
+     * @param args command line arguments
+     * @throws IOException                   when the data folder or CSV file cannot be written
+     * @throws InvalidConfigurationException when a {@code --set} value is not valid YAML
+     */
+    public static void main(String[] args) throws IOException, InvalidConfigurationException {
+        int players = DEFAULT_PLAYERS;
+        long seed = DEFAULT_SEED;
+        String script = Workload.DEFAULT_SCRIPT;
+        Path csv = null;
+        Map<String, Object> overrides = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--players" -> players = Integer.parseInt(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--workload" -> script = value;
+                case "--csv" -> csv = Path.of(value);
+                case "--set" -> {
+                    int separator = value.indexOf('=');
+                    if (separator <= 0) {
+                        usage("Expected key=value but got " + value);
+                    }
+                    overrides.put(value.substring(0, separator), parseValue(value.substring(separator + 1)));
+                }
+                default -> usage("Unknown option " + option);
+            }
+        }
+        if (players <= 0) {
+            usage("--players must be positive");
+        }
+
+        Workload workload;
+        try {
+            workload = Workload.parse(script);
+        } catch (IllegalArgumentException exception) {
+            usage(exception.getMessage());
+            return;
+        }
+
+        SimulationReport report = new SimulationReport();
+        Simulation simulation = new Simulation(players, seed, overrides);
+        simulation.start();
+        simulation.run(workload, report::add);
+        report.add(simulation.shutdown());
+
+        System.out.printf("%d players, seed %d, workload %s%n", players, seed, script);
+        report.print(System.out);
+        if (csv != null) {
+            report.writeCsv(csv);
+            System.out.println("Per-tick samples written to " + csv.toAbsolutePath());
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Parses a {@code --set} value the way {@code config.yml} would.
+     *
+     * @param text value as written on the command line
+     * @return parsed scalar or list
+     * @throws InvalidConfigurationException when the value is not valid YAML
+     */
+    private static Object parseValue(String text) throws InvalidConfigurationException {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.loadFromString("value: " + text);
+        return yaml.get("value");
+    }
+
+    /**
+     * Prints an error and the usage line, then exits.
+     *
+     * @param error problem with the command line
+     */
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: SimulationMain [--players N] [--seed N] [--workload phase:ticks,...] [--csv file]"
+            + " [--set key=value]...");
+        System.err.println("Phases: join, combat, regen, deaths, quit. Default workload: " + Workload.DEFAULT_SCRIPT);
+        System.exit(1);
+    }
+}
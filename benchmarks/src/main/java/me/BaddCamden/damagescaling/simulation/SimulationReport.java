@@ -0,0 +1,125 @@
+package me.BaddCamden.damagescaling.simulation;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects {@link TickSample}s and summarizes them per phase: how much of the 50 ms tick the plugin
+ * used, how much the server thread allocated, and how much the storage layer wrote.
+ */
+public final class SimulationReport {
+
+    private static final double TICK_BUDGET_NANOS = 50_000_000.0D;
+
+    private final List<TickSample> samples = new ArrayList<>();
+
+    /**
+     * Records the measurements of one tick.
+     *
+     * @param sample tick measurements
+     */
+    public void add(TickSample sample) {
+        samples.add(sample);
+    }
+
+    /**
+     * Prints one summary row per phase run, in the order the phases ran. Consecutive ticks of the
+     * same phase form one row, so a phase listed twice in the workload gets two rows.
+     *
+     * @param out stream to print to
+     */
+    public void print(PrintStream out) {
+        out.printf("%-9s %6s %8s %10s %10s %10s %7s %10s %12s %10s %9s%n", "Phase", "Ticks", "Events",
+            "Mean ms", "p99 ms", "Max ms", "Max %", "KB/tick", "Written KB", "setHealth", "Queued");
+        for (List<TickSample> run : runs()) {
+            long[] totals = new long[run.size()];
+            long events = 0L;
+            long allocated = 0L;
+            long written = 0L;
+            long updates = 0L;
+            for (int i = 0; i < run.size(); i++) {
+                TickSample sample = run.get(i);
+                totals[i] = sample.totalNanos();
+                events += sample.events();
+                allocated += sample.allocatedBytes();
+                written += sample.bytesWritten();
+                updates += sample.healthUpdates();
+            }
+            Arrays.sort(totals);
+            long sum = Arrays.stream(totals).sum();
+            long max = totals[totals.length - 1];
+            out.printf("%-9s %6d %8d %10.3f %10.3f %10.3f %6.1f%% %10.1f %12.1f %10d %9d%n", run.get(0).phase(),
+                run.size(), events, millis((double) sum / run.size()), millis(percentile(totals, 0.99D)),
+                millis(max), max / TICK_BUDGET_NANOS * 100.0D, allocated / 1024.0D / run.size(), written / 1024.0D,
+                updates, run.get(run.size() - 1).pendingWrites());
+        }
+    }
+
+    /**
+     * Writes every tick as one CSV row for plotting or further analysis.
+     *
+     * @param path destination file, replaced when it exists
+     * @throws IOException when the file cannot be written
+     */
+    public void writeCsv(Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("tick,phase,online,events,handler_nanos,task_nanos,allocated_bytes,bytes_written,"
+                + "health_updates,pending_writes\n");
+            for (TickSample sample : samples) {
+                writer.write(sample.tick() + "," + sample.phase() + "," + sample.online() + "," + sample.events() + ","
+                    + sample.handlerNanos() + "," + sample.taskNanos() + "," + sample.allocatedBytes() + ","
+                    + sample.bytesWritten() + "," + sample.healthUpdates() + "," + sample.pendingWrites() + "\n");
+            }
+        }
+    }
+
+    /**
+     * Splits the samples into runs of consecutive ticks from the same phase.
+     *
+     * @return runs in the order they were recorded
+     */
+    private List<List<TickSample>> runs() {
+        Map<Integer, List<TickSample>> runs = new LinkedHashMap<>();
+        String phase = null;
+        int index = -1;
+        for (TickSample sample : samples) {
+            if (!sample.phase().equals(phase)) {
+                phase = sample.phase();
+                index++;
+            }
+            runs.computeIfAbsent(index, key -> new ArrayList<>()).add(sample);
+        }
+        return new ArrayList<>(runs.values());
+    }
+
+    /**
+     * Reads a percentile from sorted values using the nearest-rank method.
+     *
+     * @param sorted     values in ascending order, not empty
+     * @param percentile fraction between zero and one
+     * @return value at the percentile
+     */
+    private static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds.
+     *
+     * @param nanos duration in nanoseconds
+     * @return duration in milliseconds
+     */
+    private static double millis(double nanos) {
+        return nanos / 1_000_000.0D;
+    }
+}
@@ -0,0 +1,28 @@
+package me.BaddCamden.damagescaling.simulation;
+
+/**
+ * Measurements taken for one simulated server tick.
+ *
+ * @param tick           tick number, starting at one
+ * @param phase          identifier of the phase that produced the tick
+ * @param online         players online at the end of the tick
+ * @param events         events dispatched to the plugin's listeners
+ * @param handlerNanos   time spent inside the listeners' event handlers
+ * @param taskNanos      time spent in the plugin's synchronous scheduled tasks
+ * @param allocatedBytes bytes allocated by the server thread while handlers and tasks ran
+ * @param bytesWritten   bytes the storage backend and journal reported writing during the tick
+ * @param healthUpdates  {@code setHealth} calls the plugin made on players
+ * @param pendingWrites  writes still queued behind the storage writer at the end of the tick
+ */
+public record TickSample(long tick, String phase, int online, int events, long handlerNanos, long taskNanos,
+                         long allocatedBytes, long bytesWritten, long healthUpdates, int pendingWrites) {
+
+    /**
+     * Returns the total server thread time the plugin used during the tick.
+     *
+     * @return handler and task time in nanoseconds
+     */
+    public long totalNanos() {
+        return handlerNanos + taskNanos;
+    }
+}
@@ -0,0 +1,71 @@
+package me.BaddCamden.damagescaling.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ordered list of phases and their durations, written as {@code phase:ticks} pairs separated by
+ * commas, for example {@code join:20,combat:400,regen:200,deaths:100,quit:20}.
+ */
+public final class Workload {
+
+    /**
+     * Script run when none is given: a join storm, sustained combat, regeneration, a wave of deaths
+     * and a mass quit.
+     */
+    public static final String DEFAULT_SCRIPT = "join:20,combat:400,regen:200,deaths:100,quit:20";
+
+    private final List<Step> steps;
+
+    private Workload(List<Step> steps) {
+        this.steps = List.copyOf(steps);
+    }
+
+    /**
+     * Parses a workload script.
+     *
+     * @param script comma separated {@code phase:ticks} pairs
+     * @return parsed workload
+     * @throws IllegalArgumentException when a step names an unknown phase or a non-positive duration
+     */
+    public static Workload parse(String script) {
+        List<Step> steps = new ArrayList<>();
+        for (String entry : script.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected phase:ticks but got " + entry.trim());
+            }
+            Phase phase = Phase.byId(entry.substring(0, separator));
+            int ticks = Integer.parseInt(entry.substring(separator + 1).trim());
+            if (ticks <= 0) {
+                throw new IllegalArgumentException("Phase " + phase.getId() + " needs a positive tick count");
+            }
+            steps.add(new Step(phase, ticks));
+        }
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("Workload script is empty");
+        }
+        return new Workload(steps);
+    }
+
+    /**
+     * Returns the steps in the order they run.
+     *
+     * @return unmodifiable list of steps
+     */
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Phase run for a fixed number of ticks.
+     *
+     * @param phase workload to run
+     * @param ticks number of ticks the phase lasts
+     */
+    public record Step(Phase phase, int ticks) {
+    }
+}
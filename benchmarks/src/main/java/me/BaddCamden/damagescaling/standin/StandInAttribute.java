@@ -0,0 +1,48 @@
+package me.BaddCamden.damagescaling.standin;
+
+import org.bukkit.attribute.AttributeInstance;
+
+/**
+ * Stand-in for a player's maximum health {@link AttributeInstance} that reports a fixed value
+ * instead of recomputing it from modifiers.
+ */
+public final class StandInAttribute {
+
+    private final AttributeInstance instance;
+    private volatile double value;
+
+    /**
+     * Creates an attribute stand-in reporting the given value.
+     *
+     * @param value initial attribute value
+     */
+    public StandInAttribute(double value) {
+        this.value = value;
+        this.instance = StandIns.proxy(AttributeInstance.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getValue", "getBaseValue", "getDefaultValue" -> this.value;
+            case "setBaseValue" -> {
+                this.value = (Double) args[0];
+                yield null;
+            }
+            default -> StandIns.defaultValue(proxy, method, args);
+        });
+    }
+
+    /**
+     * Returns the Bukkit view of this attribute.
+     *
+     * @return attribute instance backed by this stand-in
+     */
+    public AttributeInstance asAttributeInstance() {
+        return instance;
+    }
+
+    /**
+     * Changes the reported value, as equipment or potion effects would.
+     *
+     * @param value new attribute value
+     */
+    public void setValue(double value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,170 @@
+package me.BaddCamden.damagescaling.standin;
+
+import org.bukkit.entity.Player;
+import org.bukkit.persistence.PersistentDataContainer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for an online {@link Player} that tracks health, maximum health and the number of
+ * health updates sent to it. Its persistent data container is a plain map that keeps values for
+ * as long as the stand-in lives. Methods the plugin does not use return neutral defaults.
+ */
+public final class StandInPlayer implements InvocationHandler {
+
+    private static final AtomicInteger NEXT_ENTITY_ID = new AtomicInteger(1);
+
+    private final UUID uniqueId;
+    private final String name;
+    private final int entityId;
+    private final StandInAttribute maxHealth;
+    private final Player player;
+    private final Map<Object, Object> persistentData = new ConcurrentHashMap<>();
+    private final PersistentDataContainer dataContainer;
+    private volatile double health;
+    private volatile boolean online = true;
+    private volatile long healthUpdates;
+
+    /**
+     * Creates a stand-in player at full health.
+     *
+     * @param uniqueId  unique ID the player reports
+     * @param name      player name
+     * @param maxHealth maximum health the player's attribute reports
+     */
+    public StandInPlayer(UUID uniqueId, String name, double maxHealth) {
+        this.uniqueId = uniqueId;
+        this.name = name;
+        this.entityId = NEXT_ENTITY_ID.getAndIncrement();
+        this.maxHealth = new StandInAttribute(maxHealth);
+        this.health = maxHealth;
+        this.player = StandIns.proxy(Player.class, this);
+        this.dataContainer = StandIns.proxy(PersistentDataContainer.class, this::invokeDataContainer);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getUniqueId":
+                return uniqueId;
+            case "getName":
+            case "getDisplayName":
+                return name;
+            case "getEntityId":
+                return entityId;
+            case "getHealth":
+                return health;
+            case "setHealth":
+                health = (Double) args[0];
+                healthUpdates++;
+                return null;
+            case "getAttribute":
+                return maxHealth.asAttributeInstance();
+            case "isOnline":
+            case "isValid":
+                return online;
+            case "isDead":
+                return health <= 0.0D;
+            case "hasPermission":
+            case "isOp":
+                return true;
+            case "getPersistentDataContainer":
+                return dataContainer;
+            default:
+                return StandIns.defaultValue(proxy, method, args);
+        }
+    }
+
+    /**
+     * Handles calls on the persistent data container, keyed by {@link org.bukkit.NamespacedKey}.
+     *
+     * @param proxy  container proxy
+     * @param method invoked method
+     * @param args   call arguments, the key first
+     * @return stored value, presence flag, or a neutral default
+     */
+    private Object invokeDataContainer(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "set":
+                persistentData.put(args[0], args[2]);
+                return null;
+            case "get":
+                return persistentData.get(args[0]);
+            case "has":
+                return persistentData.containsKey(args[0]);
+            case "remove":
+                persistentData.remove(args[0]);
+                return null;
+            default:
+                return StandIns.defaultValue(proxy, method, args);
+        }
+    }
+
+    /**
+     * Returns the Bukkit view of this player.
+     *
+     * @return player proxy backed by this stand-in
+     */
+    public Player asPlayer() {
+        return player;
+    }
+
+    /**
+     * Returns the unique ID of this player.
+     *
+     * @return player unique ID
+     */
+    public UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    /**
+     * Reads the health most recently set on the player.
+     *
+     * @return current (displayed) health
+     */
+    public double getHealth() {
+        return health;
+    }
+
+    /**
+     * Sets the player's health directly, bypassing the update counter.
+     *
+     * @param health new health value
+     */
+    public void resetHealth(double health) {
+        this.health = health;
+    }
+
+    /**
+     * Exposes the maximum health attribute so scenarios can change it.
+     *
+     * @return maximum health stand-in
+     */
+    public StandInAttribute getMaxHealth() {
+        return maxHealth;
+    }
+
+    /**
+     * Counts how many times the plugin pushed a health value to this player.
+     *
+     * @return number of {@code setHealth} calls
+     */
+    public long getHealthUpdates() {
+        return healthUpdates;
+    }
+
+    /**
+     * Marks the player as online or offline.
+     *
+     * @param online whether the player is connected
+     */
+    public void setOnline(boolean online) {
+        this.online = online;
+    }
+}
@@ -0,0 +1,50 @@
+package me.BaddCamden.damagescaling.standin;
+
+import me.BaddCamden.damagescaling.DamageScalingPlugin;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Creates {@link DamageScalingPlugin} instances bound to the {@link StandInServer}, each with its
+ * own temporary data folder.
+ */
+public final class StandInPlugin {
+
+    /**
+     * Hidden constructor to prevent instantiation of this static utility class.
+     */
+    private StandInPlugin() {
+    }
+
+    /**
+     * Creates an unenabled plugin instance with a fresh temporary data folder.
+     *
+     * @param server stand-in server the plugin is bound to
+     * @return plugin ready for {@link DamageScalingPlugin#onEnable()}
+     * @throws IOException when the data folder cannot be created
+     */
+    public static DamageScalingPlugin create(StandInServer server) throws IOException {
+        File dataFolder = Files.createTempDirectory("damagescaling-standin").toFile();
+        return create(server, dataFolder);
+    }
+
+    /**
+     * Creates an unenabled plugin instance using the given data folder.
+     *
+     * @param server     stand-in server the plugin is bound to
+     * @param dataFolder folder for configuration and player data
+     * @return plugin ready for {@link DamageScalingPlugin#onEnable()}
+     */
+    @SuppressWarnings("deprecation")
+    public static DamageScalingPlugin create(StandInServer server, File dataFolder) {
+        JavaPluginLoader loader = new JavaPluginLoader(server.asServer());
+        PluginDescriptionFile description = new PluginDescriptionFile("DamageScaling", "offline",
+            DamageScalingPlugin.class.getName());
+        return new DamageScalingPlugin(loader, description, dataFolder, new File(dataFolder, "DamageScaling.jar")) {
+        };
+    }
+}
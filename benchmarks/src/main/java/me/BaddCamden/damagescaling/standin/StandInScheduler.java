@@ -0,0 +1,198 @@
+package me.BaddCamden.damagescaling.standin;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Stand-in {@link BukkitScheduler} driven by explicit {@link #tick()} calls. Synchronous tasks run
+ * on the thread calling {@code tick()}, which plays the role of the server thread; asynchronous
+ * tasks are handed to a small background pool.
+ */
+public final class StandInScheduler implements InvocationHandler {
+
+    private final AtomicInteger nextTaskId = new AtomicInteger(1);
+    private final List<ScheduledTask> tasks = new ArrayList<>();
+    private final ExecutorService async = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "StandIn-Async");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final BukkitScheduler scheduler = StandIns.proxy(BukkitScheduler.class, this);
+    private long currentTick;
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        if (!name.startsWith("run") && !name.startsWith("schedule")) {
+            if (name.equals("cancelTasks")) {
+                synchronized (tasks) {
+                    tasks.forEach(ScheduledTask::cancel);
+                }
+                return null;
+            }
+            if (name.equals("cancelTask")) {
+                int taskId = (Integer) args[0];
+                synchronized (tasks) {
+                    tasks.stream().filter(task -> task.getTaskId() == taskId).forEach(ScheduledTask::cancel);
+                }
+                return null;
+            }
+            if (name.equals("isCurrentlyRunning") || name.equals("isQueued")) {
+                return false;
+            }
+            return StandIns.defaultValue(proxy, method, args);
+        }
+
+        boolean asynchronous = name.contains("Async");
+        long delay = args.length > 2 ? ((Number) args[2]).longValue() : 0L;
+        long period = args.length > 3 ? ((Number) args[3]).longValue() : -1L;
+        if (!name.contains("Later") && !name.contains("Timer") && !name.contains("Delayed")
+            && !name.contains("Repeating")) {
+            delay = 0L;
+            period = -1L;
+        } else if (!name.contains("Timer") && !name.contains("Repeating")) {
+            period = -1L;
+        }
+        ScheduledTask task = new ScheduledTask(nextTaskId.getAndIncrement(), (Plugin) args[0], args[1],
+            !asynchronous, period);
+        synchronized (tasks) {
+            task.dueTick = currentTick + Math.max(delay, asynchronous ? 0L : 1L);
+            tasks.add(task);
+        }
+        if (method.getReturnType() == int.class) {
+            return task.getTaskId();
+        }
+        return method.getReturnType() == void.class ? null : task;
+    }
+
+    /**
+     * Returns the Bukkit view of this scheduler.
+     *
+     * @return scheduler proxy backed by this stand-in
+     */
+    public BukkitScheduler asScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Advances one server tick, running every synchronous task that is due on the calling thread
+     * and dispatching due asynchronous tasks to the background pool.
+     */
+    public void tick() {
+        List<ScheduledTask> due = new ArrayList<>();
+        synchronized (tasks) {
+            currentTick++;
+            Iterator<ScheduledTask> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                ScheduledTask task = iterator.next();
+                if (task.isCancelled()) {
+                    iterator.remove();
+                } else if (task.dueTick <= currentTick) {
+                    due.add(task);
+                    if (task.period > 0L) {
+                        task.dueTick = currentTick + task.period;
+                    } else {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+        for (ScheduledTask task : due) {
+            if (task.isSync()) {
+                task.run();
+            } else {
+                async.execute(task::run);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of ticks advanced so far.
+     *
+     * @return current tick counter
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Stops the asynchronous pool, waiting briefly for running tasks.
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public void shutdown() throws InterruptedException {
+        async.shutdown();
+        async.awaitTermination(10L, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Task queued on the stand-in scheduler.
+     */
+    private static final class ScheduledTask implements BukkitTask {
+
+        private final int taskId;
+        private final Plugin owner;
+        private final Object body;
+        private final boolean sync;
+        private final long period;
+        private volatile boolean cancelled;
+        private long dueTick;
+
+        private ScheduledTask(int taskId, Plugin owner, Object body, boolean sync, long period) {
+            this.taskId = taskId;
+            this.owner = owner;
+            this.body = body;
+            this.sync = sync;
+            this.period = period;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void run() {
+            if (cancelled) {
+                return;
+            }
+            if (body instanceof Runnable runnable) {
+                runnable.run();
+            } else if (body instanceof Consumer<?> consumer) {
+                ((Consumer<BukkitTask>) consumer).accept(this);
+            }
+        }
+
+        @Override
+        public int getTaskId() {
+            return taskId;
+        }
+
+        @Override
+        public Plugin getOwner() {
+            return owner;
+        }
+
+        @Override
+        public boolean isSync() {
+            return sync;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package me.BaddCamden.damagescaling.standin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Registry;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Stand-in {@link Server} exposing a controllable set of online players and a tick-driven
+ * scheduler. Registries hand out stubs of the requested type so API constants such as
+ * {@code Attribute.MAX_HEALTH} can be initialized without a running game.
+ */
+public final class StandInServer implements InvocationHandler {
+
+    private static StandInServer installed;
+
+    private final Map<UUID, StandInPlayer> players = new ConcurrentHashMap<>();
+    private final Collection<Player> onlineView = Collections.unmodifiableCollection(
+        new java.util.AbstractCollection<>() {
+            @Override
+            public java.util.Iterator<Player> iterator() {
+                return players.values().stream().map(StandInPlayer::asPlayer).iterator();
+            }
+
+            @Override
+            public int size() {
+                return players.size();
+            }
+        });
+    private final Map<Class<?>, Registry<?>> registries = new ConcurrentHashMap<>();
+    private final StandInScheduler scheduler = new StandInScheduler();
+    private final Logger logger = Logger.getLogger("StandInServer");
+    private final Server server = StandIns.proxy(Server.class, this);
+
+    private StandInServer() {
+    }
+
+    /**
+     * Installs the stand-in as Bukkit's server, or returns the one installed earlier in this JVM.
+     * Bukkit only accepts a single server instance per JVM.
+     *
+     * @return the installed stand-in server
+     */
+    public static synchronized StandInServer install() {
+        if (installed == null) {
+            installed = new StandInServer();
+            Bukkit.setServer(installed.server);
+        }
+        return installed;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getOnlinePlayers":
+                return onlineView;
+            case "getPlayer":
+                if (args.length == 1 && args[0] instanceof UUID uniqueId) {
+                    StandInPlayer player = players.get(uniqueId);
+                    return player != null ? player.asPlayer() : null;
+                }
+                return null;
+            case "getScheduler":
+                return scheduler.asScheduler();
+            case "getLogger":
+                return logger;
+            case "getName":
+                return "StandIn";
+            case "getVersion":
+            case "getBukkitVersion":
+                return "offline";
+            case "isPrimaryThread":
+                return true;
+            case "getRegistry":
+                return registries.computeIfAbsent((Class<?>) args[0], StandInServer::registry);
+            default:
+                return StandIns.defaultValue(proxy, method, args);
+        }
+    }
+
+    /**
+     * Creates a registry whose lookups return stubs of the registry's element type.
+     *
+     * @param type registry element type
+     * @return stub registry
+     */
+    private static Registry<?> registry(Class<?> type) {
+        return StandIns.proxy(Registry.class, (proxy, method, args) -> switch (method.getName()) {
+            case "get", "getOrThrow", "match" -> type.isInterface() ? StandIns.stub(type) : null;
+            default -> StandIns.defaultValue(proxy, method, args);
+        });
+    }
+
+    /**
+     * Returns the Bukkit view of this server.
+     *
+     * @return server proxy backed by this stand-in
+     */
+    public Server asServer() {
+        return server;
+    }
+
+    /**
+     * Returns the tick-driven scheduler used by plugins on this server.
+     *
+     * @return stand-in scheduler
+     */
+    public StandInScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Marks a player as online.
+     *
+     * @param player player joining the server
+     */
+    public void addPlayer(StandInPlayer player) {
+        player.setOnline(true);
+        players.put(player.getUniqueId(), player);
+    }
+
+    /**
+     * Marks a player as offline.
+     *
+     * @param player player leaving the server
+     */
+    public void removePlayer(StandInPlayer player) {
+        player.setOnline(false);
+        players.remove(player.getUniqueId());
+    }
+
+    /**
+     * Removes every player from the online list.
+     */
+    public void clearPlayers() {
+        players.values().forEach(player -> player.setOnline(false));
+        players.clear();
+    }
+}
@@ -0,0 +1,144 @@
+package me.BaddCamden.damagescaling.standin;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Builds inert implementations of Bukkit interfaces for running plugin code offline. Every method
+ * of a stub returns a neutral value: zero, {@code false}, an empty string or collection, or another
+ * stub for interface return types. Stand-ins for the few objects the plugin actually reads, such as
+ * players and the server, layer their own behaviour on top of these defaults.
+ */
+public final class StandIns {
+
+    private static final Map<Class<?>, Object> STUBS = new ConcurrentHashMap<>();
+
+    /**
+     * Hidden constructor to prevent instantiation of this static utility class.
+     */
+    private StandIns() {
+    }
+
+    /**
+     * Returns a shared inert stub for an interface type.
+     *
+     * @param type interface to stub
+     * @param <T>  stubbed type
+     * @return stub whose methods all return neutral values
+     */
+    public static <T> T stub(Class<T> type) {
+        return type.cast(STUBS.computeIfAbsent(type, key -> proxy(key, (proxy, method, args) -> defaultValue(proxy, method, args))));
+    }
+
+    /**
+     * Creates a proxy for an interface type backed by the given handler.
+     *
+     * @param type    interface to implement
+     * @param handler handler receiving every call
+     * @param <T>     implemented type
+     * @return new proxy instance
+     */
+    public static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StandIns.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Produces the neutral result for a method call, handling the {@link Object} methods so stubs
+     * behave sensibly as map keys and in log output.
+     *
+     * @param proxy  proxy receiving the call
+     * @param method invoked method
+     * @param args   call arguments, possibly {@code null}
+     * @return neutral value compatible with the method's return type
+     */
+    public static Object defaultValue(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                if (method.getParameterCount() == 1) {
+                    return proxy == args[0];
+                }
+                break;
+            case "hashCode":
+                if (method.getParameterCount() == 0) {
+                    return System.identityHashCode(proxy);
+                }
+                break;
+            case "toString":
+                if (method.getParameterCount() == 0) {
+                    return "StandIn[" + method.getDeclaringClass().getSimpleName() + "]";
+                }
+                break;
+            default:
+                break;
+        }
+        return defaultValue(method.getReturnType());
+    }
+
+    /**
+     * Produces the neutral value for a return type.
+     *
+     * @param type declared return type
+     * @return zero, {@code false}, an empty value, a stub, or {@code null} for concrete classes
+     */
+    public static Object defaultValue(Class<?> type) {
+        if (type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == double.class) {
+            return 0.0D;
+        }
+        if (type == float.class) {
+            return 0.0F;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == String.class) {
+            return "";
+        }
+        if (type == Optional.class) {
+            return Optional.empty();
+        }
+        if (type == Stream.class) {
+            return Stream.empty();
+        }
+        if (type.isArray()) {
+            return Array.newInstance(type.getComponentType(), 0);
+        }
+        if (type.isAssignableFrom(java.util.List.class)) {
+            return Collections.emptyList();
+        }
+        if (type.isAssignableFrom(java.util.Set.class)) {
+            return Collections.emptySet();
+        }
+        if (type.isAssignableFrom(java.util.Map.class)) {
+            return Collections.emptyMap();
+        }
+        if (type.isInterface()) {
+            return stub(type);
+        }
+        return null;
+    }
+}
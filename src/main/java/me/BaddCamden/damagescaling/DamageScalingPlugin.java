@@ -1,13 +1,44 @@
 package me.BaddCamden.damagescaling;
 
 import me.BaddCamden.damagescaling.command.DamageScalingCommand;
+import me.BaddCamden.damagescaling.listener.CombatListener;
 import me.BaddCamden.damagescaling.config.ScalingService;
+import me.BaddCamden.damagescaling.config.ScalingSettings;
 import me.BaddCamden.damagescaling.listener.DamageScalingListener;
+import me.BaddCamden.damagescaling.listener.DisplayUpdateBatcher;
+import me.BaddCamden.damagescaling.listener.RegenBatcher;
+import me.BaddCamden.damagescaling.listener.EntityScalingListener;
+import me.BaddCamden.damagescaling.listener.MaxHealthListener;
+import me.BaddCamden.damagescaling.metrics.PluginMetrics;
+import me.BaddCamden.damagescaling.metrics.PrometheusExporter;
+import me.BaddCamden.damagescaling.scheduler.TaskScheduler;
+import me.BaddCamden.damagescaling.scheduler.TaskSchedulers;
+import me.BaddCamden.damagescaling.storage.EntityHealthTable;
+import me.BaddCamden.damagescaling.storage.PlayerDataMigration;
 import me.BaddCamden.damagescaling.storage.RealHealthStore;
 import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 /**
  * Main entry point for the DamageScaling plugin, wiring services, listeners, and configuration
@@ -15,9 +46,49 @@ import org.bukkit.plugin.java.JavaPlugin;
  */
 public class DamageScalingPlugin extends JavaPlugin {
 
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 10_000L;
+    private static final long DEFAULT_METRICS_EXPORT_SECONDS = 60L;
+    private static final long DEFAULT_JOURNAL_INTERVAL_TICKS = 100L;
+    private static final long DEFAULT_PLAYER_DATA_FLUSH_TICKS = 100L;
+    private static final double DEFAULT_SYNC_BUDGET_MILLIS = 2.0D;
+    private static final long DEFAULT_PROFILE_RECHECK_TICKS = 600L;
+    private static final long DEFAULT_MAX_HEALTH_CHECK_TICKS = 100L;
+    private static final long DEFAULT_REGEN_BATCH_TICKS = 1L;
+    private static final int DEFAULT_MIGRATION_BATCH_SIZE = 1000;
+
+    private TaskScheduler taskScheduler;
+    private PluginMetrics metrics;
+    private PrometheusExporter metricsExporter;
     private RealHealthStore realHealthStore;
+    private EntityHealthTable entityHealthTable;
     private ScalingService scalingService;
-    private boolean scalingEnabled;
+    private DisplayUpdateBatcher displayUpdateBatcher;
+    private RegenBatcher regenBatcher;
+    private HealthSyncJob healthSyncJob;
+    private volatile PlayerDataMigration migration;
+    private CombatListener combatListener;
+    private volatile FileConfiguration configuration;
+    private volatile boolean scalingEnabled;
+
+    /**
+     * Creates the plugin through Bukkit's plugin class loader, as done by the server at runtime.
+     */
+    public DamageScalingPlugin() {
+        super();
+    }
+
+    /**
+     * Creates the plugin outside of a plugin class loader so the offline benchmarks can drive it
+     * against stand-in server objects. Bukkit rejects this constructor at runtime.
+     *
+     * @param loader      plugin loader bound to the stand-in server
+     * @param description plugin description to report
+     * @param dataFolder  folder for configuration and player data
+     * @param file        file the plugin was notionally loaded from
+     */
+    protected DamageScalingPlugin(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file) {
+        super(loader, description, dataFolder, file);
+    }
 
     /**
      * Initializes the plugin, creating core services, loading configuration, and applying scaling
@@ -26,22 +97,52 @@ public class DamageScalingPlugin extends JavaPlugin {
     @Override
     public void onEnable() {
         saveDefaultConfig();
-        realHealthStore = new RealHealthStore(this);
+        taskScheduler = TaskSchedulers.create(this);
+        metrics = new PluginMetrics(getConfig().getBoolean("metrics.enabled", true));
+        realHealthStore = new RealHealthStore(this, metrics);
         scalingService = new ScalingService();
+        if (getConfig().getBoolean("entities.enabled", false)) {
+            entityHealthTable = new EntityHealthTable();
+        }
 
         reloadSettings();
+        startDisplayUpdateBatcher();
+        startRegenBatcher();
+        startHealthJournal();
+        startPlayerDataFlush();
+        startProfileRecheck();
         registerListeners();
         registerCommands();
-        refreshAllPlayers();
+        startMetricsExporter();
+        refreshAllPlayers(null);
     }
 
     /**
-     * Cleans up plugin state by restoring players' real health and persisting cached values.
+     * Cleans up plugin state by restoring players' real health and persisting cached values,
+     * waiting a bounded time for queued writes before flushing the remainder synchronously. Any
+     * bulk job still in progress is superseded by a restore that runs to completion immediately.
      */
     @Override
     public void onDisable() {
-        restoreRealHealth();
+        if (realHealthStore == null) {
+            return;
+        }
+        if (healthSyncJob != null) {
+            healthSyncJob.cancel();
+        }
+        PlayerDataMigration runningMigration = migration;
+        if (runningMigration != null) {
+            runningMigration.cancel();
+        }
+        new HealthSyncJob(this, HealthSyncJob.Kind.RESTORE, null, 0.0D, null).runToCompletion();
+        if (!taskScheduler.isRegionThreaded()) {
+            restoreTrackedEntities();
+        }
         realHealthStore.saveAll(Bukkit.getOnlinePlayers());
+        realHealthStore.close(getConfig().getLong("storage.shutdown-timeout-millis", DEFAULT_SHUTDOWN_TIMEOUT_MILLIS));
+        if (metricsExporter != null) {
+            metricsExporter.run();
+        }
     }
 
     /**
@@ -64,6 +165,25 @@ public class DamageScalingPlugin extends JavaPlugin {
         saveConfig();
     }
 
+    /**
+     * Provides the scheduler that routes work to the owning thread on both classic and
+     * region-threaded servers.
+     *
+     * @return the shared {@link TaskScheduler}
+     */
+    public TaskScheduler getTaskScheduler() {
+        return taskScheduler;
+    }
+
+    /**
+     * Provides the runtime cost counters shared by listeners, storage and the stats command.
+     *
+     * @return the shared {@link PluginMetrics}
+     */
+    public PluginMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Provides access to the scaling configuration service for listeners and commands.
      *
@@ -82,6 +202,34 @@ public class DamageScalingPlugin extends JavaPlugin {
         return realHealthStore;
     }
 
+    /**
+     * Provides the real health table for scaled non-player entities when {@code entities.enabled}
+     * is on.
+     *
+     * @return the shared {@link EntityHealthTable}, or {@code null} when entity scaling is off
+     */
+    public EntityHealthTable getEntityHealthTable() {
+        return entityHealthTable;
+    }
+
+    /**
+     * Provides the per-tick display update batcher when {@code display.coalesce-updates} is on.
+     *
+     * @return the shared {@link DisplayUpdateBatcher}, or {@code null} when updates are immediate
+     */
+    public DisplayUpdateBatcher getDisplayUpdateBatcher() {
+        return displayUpdateBatcher;
+    }
+
+    /**
+     * Provides the regen sweep when {@code regen.batch} is on.
+     *
+     * @return the shared {@link RegenBatcher}, or {@code null} when regeneration is applied per event
+     */
+    public RegenBatcher getRegenBatcher() {
+        return regenBatcher;
+    }
+
     /**
      * Reloads configuration from disk and refreshes the scaling service with the latest options.
      */
@@ -89,36 +237,408 @@ public class DamageScalingPlugin extends JavaPlugin {
         reloadConfig();
         FileConfiguration config = getConfig();
         this.scalingEnabled = config.getBoolean("enabled", true);
-        scalingService.reload(config);
+        ScalingSettings settings = ScalingSettings.parse(config);
+        scalingService.apply(settings);
+        logWarnings(settings);
+    }
+
+    /**
+     * Reads and parses {@code config.yml} on an asynchronous thread and publishes the resulting
+     * configuration and {@link ScalingSettings} snapshot without touching the server thread. Back on
+     * the server thread, online players are then refreshed or restored to match the reloaded
+     * {@code enabled} flag. A file that fails to parse leaves the current settings in place.
+     *
+     * @param sender recipient of the refresh job's progress reports
+     * @return future completed on the server thread with the published settings, or exceptionally
+     * when the file could not be read
+     */
+    public CompletableFuture<ScalingSettings> reloadSettingsAsync(CommandSender sender) {
+        CompletableFuture<ScalingSettings> result = new CompletableFuture<>();
+        taskScheduler.runAsync(() -> {
+            FileConfiguration loaded;
+            ScalingSettings settings;
+            try {
+                loaded = readConfiguration();
+                settings = ScalingSettings.parse(loaded);
+                logWarnings(settings);
+            } catch (IOException | InvalidConfigurationException exception) {
+                getLogger().log(Level.WARNING, "Could not reload config.yml; keeping the current settings", exception);
+                runOnServerThread(() -> result.completeExceptionally(exception));
+                return;
+            }
+
+            configuration = loaded;
+            scalingService.apply(settings);
+            boolean enabled = loaded.getBoolean("enabled", true);
+            runOnServerThread(() -> {
+                boolean wasEnabled = scalingEnabled;
+                scalingEnabled = enabled;
+                result.complete(settings);
+                if (enabled) {
+                    refreshAllPlayers(sender);
+                } else if (wasEnabled) {
+                    restoreRealHealth(sender);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Logs the problems found while parsing a settings snapshot.
+     *
+     * @param settings freshly parsed settings
+     */
+    private void logWarnings(ScalingSettings settings) {
+        for (String warning : settings.getWarnings()) {
+            getLogger().warning("config.yml " + warning + "; using the default curve instead");
+        }
+    }
+
+    /**
+     * Returns the plugin configuration, which is replaced wholesale by reloads so it can be handed
+     * to other threads.
+     *
+     * @return current configuration
+     */
+    @Override
+    public FileConfiguration getConfig() {
+        FileConfiguration current = configuration;
+        if (current == null) {
+            reloadConfig();
+            current = configuration;
+        }
+        return current;
+    }
+
+    /**
+     * Reads {@code config.yml} from the data folder, falling back to the bundled defaults when the
+     * file cannot be parsed.
+     */
+    @Override
+    public void reloadConfig() {
+        try {
+            configuration = readConfiguration();
+        } catch (IOException | InvalidConfigurationException exception) {
+            getLogger().log(Level.SEVERE, "Could not load config.yml; using the bundled defaults", exception);
+            YamlConfiguration fallback = new YamlConfiguration();
+            YamlConfiguration defaults = readDefaultConfiguration();
+            if (defaults != null) {
+                fallback.setDefaults(defaults);
+            }
+            configuration = fallback;
+        }
+    }
+
+    /**
+     * Loads a fresh configuration object from {@code config.yml} with the bundled file as defaults.
+     * Touches no shared state, so it may run on any thread.
+     *
+     * @return newly loaded configuration
+     * @throws IOException                   when the file cannot be read
+     * @throws InvalidConfigurationException when the file is not valid YAML
+     */
+    private FileConfiguration readConfiguration() throws IOException, InvalidConfigurationException {
+        YamlConfiguration loaded = new YamlConfiguration();
+        File file = new File(getDataFolder(), "config.yml");
+        if (file.isFile()) {
+            loaded.load(file);
+        }
+        YamlConfiguration defaults = readDefaultConfiguration();
+        if (defaults != null) {
+            loaded.setDefaults(defaults);
+        }
+        return loaded;
+    }
+
+    /**
+     * Loads the {@code config.yml} bundled in the plugin jar.
+     *
+     * @return bundled configuration, or {@code null} when it is missing or unreadable
+     */
+    private YamlConfiguration readDefaultConfiguration() {
+        InputStream resource = getResource("config.yml");
+        if (resource == null) {
+            return null;
+        }
+        try (Reader reader = new InputStreamReader(resource, StandardCharsets.UTF_8)) {
+            return YamlConfiguration.loadConfiguration(reader);
+        } catch (IOException exception) {
+            getLogger().log(Level.WARNING, "Could not read the bundled config.yml", exception);
+            return null;
+        }
+    }
+
+    /**
+     * Runs a task on the main (or global region) thread unless the plugin has been disabled in the meantime.
+     *
+     * @param task work to run
+     */
+    private void runOnServerThread(Runnable task) {
+        if (isEnabled()) {
+            taskScheduler.runGlobal(task);
+        }
     }
 
     /**
      * Ensures all online players have their real health loaded and their display health synced with
-     * the current scaling mode.
+     * the current scaling mode. Players who were unscaled are resynced from their live health. Runs
+     * as a tick-spread job limited by {@code sync.tick-budget-millis} and supersedes any bulk job
+     * still in progress; when scaling is enabled the damage and regen handlers are registered first.
+     *
+     * @param sender recipient of progress reports, or {@code null} for none
+     */
+    public void refreshAllPlayers(CommandSender sender) {
+        startHealthSyncJob(HealthSyncJob.Kind.REFRESH, sender);
+    }
+
+    /**
+     * Applies stored real health values back to each online player, undoing visual scaling. Runs as
+     * a tick-spread job limited by {@code sync.tick-budget-millis} and supersedes any bulk job
+     * still in progress; the damage and regen handlers are unregistered once it completes. Scaled
+     * entities are restored on the next tick, except on region-threaded servers, where no thread may
+     * walk every world's entities and each entity is restored by its next damage or regain event.
+     *
+     * @param sender recipient of progress reports, or {@code null} for none
+     */
+    public void restoreRealHealth(CommandSender sender) {
+        startHealthSyncJob(HealthSyncJob.Kind.RESTORE, sender);
+        if (entityHealthTable != null && !taskScheduler.isRegionThreaded()) {
+            taskScheduler.runGlobal(this::restoreTrackedEntities);
+        }
+    }
+
+    /**
+     * Moves the per-player YAML files into the active storage backend on a background thread,
+     * reporting progress and throughput to the sender. With the YAML backend active only pruning
+     * applies. Thread count and chunk size come from {@code storage.migration}.
+     *
+     * @param sender recipient of progress reports
+     * @param prune  whether records at the vanilla maximum health are deleted instead of imported
+     * @return {@code false} when a migration is already running
+     */
+    public synchronized boolean migratePlayerData(CommandSender sender, boolean prune) {
+        if (migration != null) {
+            return false;
+        }
+        int threads = getConfig().getInt("storage.migration.threads", 0);
+        PlayerDataMigration started = new PlayerDataMigration(realHealthStore, getLogger(), prune,
+            threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+            getConfig().getInt("storage.migration.batch-size", DEFAULT_MIGRATION_BATCH_SIZE));
+        migration = started;
+        taskScheduler.runAsync(() -> {
+            try {
+                PlayerDataMigration.Progress result = started.run(progress ->
+                    runOnServerThread(() -> sender.sendMessage(ChatColor.GRAY + describeMigration(progress))));
+                getLogger().info(describeMigration(result));
+                runOnServerThread(() -> sender.sendMessage(ChatColor.GREEN + describeMigration(result)));
+            } catch (IOException exception) {
+                getLogger().log(Level.SEVERE, "Player data migration failed", exception);
+                runOnServerThread(() -> sender.sendMessage(ChatColor.RED + "Player data migration failed: "
+                    + exception.getMessage()));
+            } finally {
+                migration = null;
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Formats migration counts as one line.
+     *
+     * @param progress counts to describe
+     * @return human-readable summary
+     */
+    private static String describeMigration(PlayerDataMigration.Progress progress) {
+        String state = progress.cancelled() ? "Migration cancelled" : progress.finished() ? "Migration done" : "Migrating";
+        return state + String.format(Locale.ROOT, ": %d file(s) read (%.1f MiB) in %.1f s, %.0f files/s; "
+                + "%d imported, %d pruned, %d superseded, %d skipped, %d failed.", progress.scanned(),
+            progress.bytesRead() / 1048576.0D, progress.elapsedNanos() / 1_000_000_000.0D, progress.filesPerSecond(),
+            progress.imported(), progress.pruned(), progress.superseded(), progress.skipped(), progress.failed());
+    }
+
+    /**
+     * Cancels the current bulk job, if any, and starts a new one over all online players.
+     *
+     * @param kind   state players are moved into
+     * @param sender recipient of progress reports, or {@code null} for none
+     */
+    private void startHealthSyncJob(HealthSyncJob.Kind kind, CommandSender sender) {
+        if (healthSyncJob != null) {
+            healthSyncJob.cancel();
+        }
+        Runnable completion = null;
+        if (kind == HealthSyncJob.Kind.REFRESH && scalingEnabled) {
+            registerCombatListener();
+        } else if (kind == HealthSyncJob.Kind.RESTORE) {
+            completion = () -> {
+                if (!scalingEnabled) {
+                    unregisterCombatListener();
+                }
+            };
+        }
+        healthSyncJob = new HealthSyncJob(this, kind, sender,
+            getConfig().getDouble("sync.tick-budget-millis", DEFAULT_SYNC_BUDGET_MILLIS), completion);
+        healthSyncJob.start();
+    }
+
+    /**
+     * Registers the damage and regen handlers unless they are registered already. Called before a
+     * refresh starts so players become scaled only while their events are handled.
+     */
+    private void registerCombatListener() {
+        if (combatListener != null) {
+            return;
+        }
+        combatListener = new CombatListener(this);
+        Bukkit.getPluginManager().registerEvents(combatListener, this);
+    }
+
+    /**
+     * Removes the damage and regen handlers from the event bus. Called once a restore has shown
+     * every player their real health, so a disabled plugin costs nothing per damage event.
+     */
+    private void unregisterCombatListener() {
+        if (combatListener == null) {
+            return;
+        }
+        HandlerList.unregisterAll(combatListener);
+        combatListener = null;
+    }
+
+    /**
+     * Schedules the once-per-tick display flush when coalesced updates are enabled in
+     * configuration. The flush touches every dirty player from one thread, so it is skipped on
+     * region-threaded servers.
+     */
+    private void startDisplayUpdateBatcher() {
+        if (!getConfig().getBoolean("display.coalesce-updates", false)) {
+            return;
+        }
+        if (taskScheduler.isRegionThreaded()) {
+            getLogger().warning("display.coalesce-updates is not supported on region-threaded servers; "
+                + "display health is updated immediately instead.");
+            return;
+        }
+        displayUpdateBatcher = new DisplayUpdateBatcher(this);
+        taskScheduler.runGlobalTimer(displayUpdateBatcher, 1L, 1L);
+    }
+
+    /**
+     * Starts the regen sweep when {@code regen.batch} is enabled, running it every
+     * {@code regen.batch-interval-ticks}. Like the display batcher, the sweep touches every queued
+     * player from one thread, so it is skipped on region-threaded servers.
+     */
+    private void startRegenBatcher() {
+        if (!getConfig().getBoolean("regen.batch", false)) {
+            return;
+        }
+        if (taskScheduler.isRegionThreaded()) {
+            getLogger().warning("regen.batch is not supported on region-threaded servers; "
+                + "regeneration is applied per event instead.");
+            return;
+        }
+        long intervalTicks = Math.max(1L, getConfig().getLong("regen.batch-interval-ticks", DEFAULT_REGEN_BATCH_TICKS));
+        regenBatcher = new RegenBatcher(this);
+        taskScheduler.runGlobalTimer(regenBatcher, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Schedules the periodic drop of cached profile curves so permission changes, which Bukkit
+     * reports through no event, are picked up within {@code profiles-recheck-interval-ticks}.
+     * Skipped while no profiles are configured.
+     */
+    private void startProfileRecheck() {
+        long intervalTicks = getConfig().getLong("profiles-recheck-interval-ticks", DEFAULT_PROFILE_RECHECK_TICKS);
+        if (intervalTicks <= 0L) {
+            return;
+        }
+        taskScheduler.runGlobalTimer(() -> {
+            if (scalingService.getSettings().hasProfiles()) {
+                realHealthStore.invalidateProfiles();
+            }
+        }, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Schedules the periodic journal snapshot of changed real health values when the store has
+     * the journal enabled.
      */
-    public void refreshAllPlayers() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            realHealthStore.load(player);
-            DamageScalingListener.applyVisualHealth(this, player);
+    private void startHealthJournal() {
+        if (!realHealthStore.isJournalEnabled()) {
+            return;
         }
+        long intervalTicks = Math.max(1L, getConfig().getLong("storage.journal.interval-ticks", DEFAULT_JOURNAL_INTERVAL_TICKS));
+        taskScheduler.runGlobalTimer(realHealthStore::journalDirtySlots, intervalTicks, intervalTicks);
     }
 
     /**
-     * Applies stored real health values back to each online player, undoing visual scaling.
+     * Schedules the periodic copy of changed real health into online players' persistent data when
+     * the persistent data backend is active, so vanilla autosaves store a current value. Each copy
+     * runs on the player's own thread on region-threaded servers.
      */
-    public void restoreRealHealth() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            double max = HealthUtil.getMaxHealth(player);
-            double real = realHealthStore.getRealHealth(player);
-            player.setHealth(HealthUtil.clamp(real, max));
+    private void startPlayerDataFlush() {
+        if (!realHealthStore.isPlayerDataBackend()) {
+            return;
         }
+        long intervalTicks = Math.max(1L,
+            getConfig().getLong("storage.persistent-data.flush-interval-ticks", DEFAULT_PLAYER_DATA_FLUSH_TICKS));
+        taskScheduler.runGlobalTimer(() -> {
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (taskScheduler.isRegionThreaded()) {
+                    taskScheduler.runForEntity(player, () -> realHealthStore.flushPlayerData(player));
+                } else {
+                    realHealthStore.flushPlayerData(player);
+                }
+            }
+        }, intervalTicks, intervalTicks);
     }
 
     /**
-     * Registers the event listeners responsible for scaling damage and health changes.
+     * Schedules the periodic Prometheus text export of metrics when collection is enabled and
+     * {@code metrics.export-interval-seconds} is positive.
+     */
+    private void startMetricsExporter() {
+        long intervalSeconds = getConfig().getLong("metrics.export-interval-seconds", DEFAULT_METRICS_EXPORT_SECONDS);
+        if (!metrics.isEnabled() || intervalSeconds <= 0L) {
+            return;
+        }
+        metricsExporter = new PrometheusExporter(metrics, realHealthStore::getPendingWriteCount,
+            new File(getDataFolder(), "metrics.prom"), getLogger());
+        long intervalTicks = intervalSeconds * 20L;
+        taskScheduler.runAsyncTimer(metricsExporter, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Registers the event listeners responsible for scaling damage and health changes, and
+     * schedules the periodic maximum health consistency check.
      */
     private void registerListeners() {
         Bukkit.getPluginManager().registerEvents(new DamageScalingListener(this), this);
+        MaxHealthListener maxHealthListener = new MaxHealthListener(this);
+        Bukkit.getPluginManager().registerEvents(maxHealthListener, this);
+        long checkTicks = getConfig().getLong("max-health-check-interval-ticks", DEFAULT_MAX_HEALTH_CHECK_TICKS);
+        if (checkTicks > 0L) {
+            taskScheduler.runGlobalTimer(maxHealthListener, checkTicks, checkTicks);
+        }
+        if (entityHealthTable != null) {
+            Bukkit.getPluginManager().registerEvents(new EntityScalingListener(this), this);
+        }
+    }
+
+    /**
+     * Shows the real health again on every loaded entity that is still tracked as scaled. Walks the
+     * entities of every world, so it must run on the main thread of a classic server.
+     */
+    private void restoreTrackedEntities() {
+        if (entityHealthTable == null || entityHealthTable.size() == 0) {
+            return;
+        }
+        for (World world : Bukkit.getWorlds()) {
+            for (LivingEntity entity : world.getLivingEntities()) {
+                EntityScalingListener.restore(entityHealthTable, entity);
+            }
+        }
     }
 
     /**
@@ -0,0 +1,266 @@
+package me.BaddCamden.damagescaling;
+
+import me.BaddCamden.damagescaling.listener.DamageScalingListener;
+import me.BaddCamden.damagescaling.scheduler.TaskHandle;
+import me.BaddCamden.damagescaling.storage.HealthSlot;
+import me.BaddCamden.damagescaling.storage.RealHealthStore;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies scaled or real health to every online player as a resumable job that processes players
+ * within a per-tick time budget instead of in one loop. Each player is switched atomically within
+ * a single step, and the listeners follow each slot's own {@link HealthSlot#isScaled()} flag, so
+ * players the job has not reached yet keep behaving exactly as before the toggle.
+ *
+ * <p>A refresh first prefetches the stored records of every untracked player in parallel through
+ * {@link RealHealthStore#preload}, and only starts applying once all of them are staged, so the
+ * ticks it spends never wait on the disk.
+ *
+ * <p>On region-threaded servers the job runs on the global region thread and hands each player to
+ * the thread owning them, so the budget limits how many players are dispatched per tick. The
+ * completion then waits until every dispatched player task has run or been dropped, because Folia
+ * does not order the global region against entity regions.
+ */
+public final class HealthSyncJob implements Runnable {
+
+    private static final long PROGRESS_INTERVAL_TICKS = 20L;
+
+    /**
+     * Target state a job moves players into.
+     */
+    public enum Kind {
+        /**
+         * Loads untracked players, resyncs unscaled ones from their live health and shows health
+         * according to the current scaling setting.
+         */
+        REFRESH,
+        /**
+         * Shows every scaled player's real health, undoing visual scaling. Players already unscaled
+         * keep their live health, which becomes their real health.
+         */
+        RESTORE
+    }
+
+    private final DamageScalingPlugin plugin;
+    private final Kind kind;
+    private final CommandSender sender;
+    private final long budgetNanos;
+    private final List<Player> players;
+    private final Runnable completion;
+    // Dispatched player tasks still to run, plus one held by the job itself until it finishes.
+    private final AtomicInteger outstanding = new AtomicInteger(1);
+    private int index;
+    private int processed;
+    private long ticks;
+    private long startedAt;
+    private TaskHandle task;
+    private CompletableFuture<Void> preload;
+
+    /**
+     * Captures the players currently online as the job's work list.
+     *
+     * @param plugin       owning plugin instance
+     * @param kind         state players are moved into
+     * @param sender       recipient of progress reports, or {@code null} for none
+     * @param budgetMillis time each tick may spend on the job; at least one player is handled per tick
+     * @param completion   work to run once every player has been handled, or {@code null}; not run
+     *                     when the job is cancelled
+     */
+    public HealthSyncJob(DamageScalingPlugin plugin, Kind kind, CommandSender sender, double budgetMillis,
+                         Runnable completion) {
+        this.plugin = plugin;
+        this.kind = kind;
+        this.sender = sender;
+        this.budgetNanos = (long) (Math.max(0.0D, budgetMillis) * 1_000_000.0D);
+        this.players = new ArrayList<>(Bukkit.getOnlinePlayers());
+        this.completion = completion;
+    }
+
+    /**
+     * Starts prefetching untracked players for a refresh and schedules the job to run every tick,
+     * starting with the next one, until all players have been handled.
+     */
+    public void start() {
+        startedAt = System.nanoTime();
+        if (sender != null && !players.isEmpty()) {
+            sender.sendMessage(ChatColor.GRAY + describe() + " " + players.size() + " player(s)...");
+        }
+        if (kind == Kind.REFRESH) {
+            RealHealthStore store = plugin.getRealHealthStore();
+            List<UUID> untracked = new ArrayList<>();
+            for (Player player : players) {
+                if (store.findSlot(player) == null) {
+                    untracked.add(player.getUniqueId());
+                }
+            }
+            preload = store.preload(untracked);
+        }
+        task = plugin.getTaskScheduler().runGlobalTimer(this, 1L, 1L);
+    }
+
+    /**
+     * Handles players until the tick budget is spent, reporting progress about once per second and
+     * cancelling itself once the work list is exhausted. Does nothing while the prefetch of a
+     * refresh is still reading.
+     */
+    @Override
+    public void run() {
+        ticks++;
+        if (preload != null && !preload.isDone()) {
+            return;
+        }
+        long deadline = System.nanoTime() + budgetNanos;
+        do {
+            if (index >= players.size()) {
+                finish();
+                return;
+            }
+            apply(players.get(index++));
+        } while (System.nanoTime() < deadline);
+
+        if (sender != null && ticks % PROGRESS_INTERVAL_TICKS == 0L) {
+            sender.sendMessage(ChatColor.GRAY + describe() + " " + index + "/" + players.size() + " player(s)...");
+        }
+    }
+
+    /**
+     * Handles every remaining player immediately, ignoring the budget. Used when the plugin shuts
+     * down and scheduled work would never run, so players are updated on the calling thread even on
+     * region-threaded servers, where they have normally been disconnected by then.
+     */
+    public void runToCompletion() {
+        if (startedAt == 0L) {
+            startedAt = System.nanoTime();
+        }
+        while (index < players.size()) {
+            Player player = players.get(index++);
+            if (player.isOnline()) {
+                applyNow(player);
+                processed++;
+            }
+        }
+        finish();
+    }
+
+    /**
+     * Stops the job without handling the remaining players, typically because a newer job
+     * supersedes it.
+     */
+    public void cancel() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Indicates whether players remain to be handled.
+     *
+     * @return {@code true} until every captured player has been processed
+     */
+    public boolean isRunning() {
+        return index < players.size();
+    }
+
+    /**
+     * Moves one player into the job's target state.
+     *
+     * @param player player to update
+     */
+    private void apply(Player player) {
+        if (!player.isOnline()) {
+            return;
+        }
+        if (plugin.getTaskScheduler().isRegionThreaded()) {
+            outstanding.incrementAndGet();
+            plugin.getTaskScheduler().runForEntity(player, () -> {
+                try {
+                    applyNow(player);
+                } finally {
+                    arrive();
+                }
+            }, this::arrive);
+        } else {
+            applyNow(player);
+        }
+        processed++;
+    }
+
+    /**
+     * Moves one player into the job's target state on the thread that owns them.
+     *
+     * @param player player to update
+     */
+    private void applyNow(Player player) {
+        RealHealthStore store = plugin.getRealHealthStore();
+        if (kind == Kind.REFRESH) {
+            HealthSlot tracked = store.findSlot(player);
+            if (tracked == null) {
+                store.load(player);
+            } else if (!tracked.isScaled()) {
+                // Vanilla kept this player's health while unscaled, so it is the real health now.
+                tracked.setRealHealth(HealthUtil.clamp(player.getHealth(), HealthUtil.getMaxHealth(player, tracked)));
+            }
+            DamageScalingListener.applyVisualHealth(plugin, player);
+        } else {
+            HealthSlot slot = store.slot(player);
+            if (!slot.isScaled()) {
+                // Already showing vanilla health, which nothing mirrors into the slot, so resync instead.
+                slot.setRealHealth(HealthUtil.clamp(player.getHealth(), HealthUtil.getMaxHealth(player, slot)));
+                return;
+            }
+            player.setHealth(HealthUtil.clamp(slot.getRealHealth(), HealthUtil.getMaxHealth(player)));
+            slot.setScaled(false);
+        }
+    }
+
+    /**
+     * Marks one dispatched player task, or the job's own dispatching, as done and runs the
+     * completion once nothing is outstanding. On region-threaded servers the completion is handed
+     * to the global region, since the last arrival may be on any region thread.
+     */
+    private void arrive() {
+        if (outstanding.decrementAndGet() != 0 || completion == null) {
+            return;
+        }
+        if (plugin.getTaskScheduler().isRegionThreaded() && plugin.isEnabled()) {
+            plugin.getTaskScheduler().runGlobal(completion);
+        } else {
+            completion.run();
+        }
+    }
+
+    /**
+     * Cancels the scheduled task, runs the completion once every dispatched player task is done and
+     * reports the outcome.
+     */
+    private void finish() {
+        cancel();
+        arrive();
+        if (sender == null) {
+            return;
+        }
+        double elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000.0D;
+        sender.sendMessage(ChatColor.GRAY + describe() + " done: " + processed + " player(s) over " + Math.max(1L, ticks)
+            + String.format(Locale.ROOT, " tick(s) in %.1f ms.", elapsedMillis));
+    }
+
+    /**
+     * Describes the job for progress messages.
+     *
+     * @return human-readable job name
+     */
+    private String describe() {
+        return kind == Kind.REFRESH ? "Refreshing" : "Restoring real health for";
+    }
+}
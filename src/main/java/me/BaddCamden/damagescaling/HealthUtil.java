@@ -1,11 +1,13 @@
 package me.BaddCamden.damagescaling;
 
+import me.BaddCamden.damagescaling.storage.HealthSlot;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 
 /**
- * Utility methods for safely handling player health values without assuming Bukkit always returns
+ * Utility methods for safely handling player and entity health values without assuming Bukkit always returns
  * non-null attributes.
  */
 public final class HealthUtil {
@@ -17,20 +19,38 @@ public final class HealthUtil {
     }
 
     /**
-     * Retrieves the maximum health value available to a player, falling back to the vanilla default
-     * of 20.0 hearts if the attribute is unavailable.
+     * Retrieves the maximum health value available to a player or other living entity, falling
+     * back to the vanilla player default of 20.0 hearts if the attribute is unavailable.
      *
-     * @param player player whose health cap should be inspected
+     * @param entity player or entity whose health cap should be inspected
      * @return the numeric maximum health value to use for calculations
      */
-    public static double getMaxHealth(Player player) {
-        AttributeInstance instance = player.getAttribute(Attribute.MAX_HEALTH);
+    public static double getMaxHealth(LivingEntity entity) {
+        AttributeInstance instance = entity.getAttribute(Attribute.MAX_HEALTH);
         if (instance == null) {
             return 20.0D;
         }
         return instance.getValue();
     }
 
+    /**
+     * Retrieves a player's maximum health from their slot's cache, reading the attribute and
+     * caching the result only when the cache was invalidated.
+     *
+     * @param player player whose health cap should be inspected
+     * @param slot   the player's health slot
+     * @return the numeric maximum health value to use for calculations
+     */
+    public static double getMaxHealth(Player player, HealthSlot slot) {
+        double cached = slot.getCachedMaxHealth();
+        if (!Double.isNaN(cached)) {
+            return cached;
+        }
+        double maxHealth = getMaxHealth(player);
+        slot.cacheMaxHealth(maxHealth);
+        return maxHealth;
+    }
+
     /**
      * Restricts a health value to the inclusive range {@code [0, max]} while ensuring the upper
      * bound itself is not negative.
@@ -1,22 +1,37 @@
 package me.BaddCamden.damagescaling.command;
 
 import me.BaddCamden.damagescaling.DamageScalingPlugin;
+import me.BaddCamden.damagescaling.metrics.LatencyHistogram;
+import me.BaddCamden.damagescaling.metrics.PluginMetrics;
+import me.BaddCamden.damagescaling.storage.CombatHistory;
+import me.BaddCamden.damagescaling.storage.HealthSlot;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityRegainHealthEvent;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Handles the {@code /damagescaling} administrative command, allowing operators to toggle scaling
- * on and off at runtime.
+ * on and off at runtime, reload the configuration, inspect the plugin's runtime cost and a
+ * player's recent combat, and migrate stored player data.
  */
 public class DamageScalingCommand implements CommandExecutor, TabCompleter {
 
+    private static final EntityDamageEvent.DamageCause[] DAMAGE_CAUSES = EntityDamageEvent.DamageCause.values();
+    private static final EntityRegainHealthEvent.RegainReason[] REGAIN_REASONS =
+        EntityRegainHealthEvent.RegainReason.values();
+
     private final DamageScalingPlugin plugin;
 
     /**
@@ -46,32 +61,210 @@ public class DamageScalingCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        if (args.length != 1) {
-            sender.sendMessage(ChatColor.RED + "Usage: /" + label + " <enable|disable>");
+        if (args.length == 0) {
+            sender.sendMessage(ChatColor.RED + "Usage: /" + label + " <enable|disable|reload|stats|inspect|migrate>");
             return true;
         }
 
         String action = args[0].toLowerCase();
+        if (action.equals("migrate")) {
+            migrate(sender, label, args);
+            return true;
+        }
+
+        if (action.equals("inspect")) {
+            inspect(sender, label, args);
+            return true;
+        }
+
+        if (args.length != 1) {
+            sender.sendMessage(ChatColor.RED + "Usage: /" + label + " <enable|disable|reload|stats|inspect|migrate>");
+            return true;
+        }
+
         if (action.equals("enable")) {
             plugin.setScalingEnabled(true);
-            plugin.refreshAllPlayers();
+            plugin.refreshAllPlayers(sender);
             sender.sendMessage(ChatColor.GREEN + "Damage scaling is now enabled.");
             return true;
         }
 
         if (action.equals("disable")) {
+            if (!plugin.isScalingEnabled()) {
+                sender.sendMessage(ChatColor.YELLOW + "Damage scaling is already disabled.");
+                return true;
+            }
             plugin.setScalingEnabled(false);
-            plugin.restoreRealHealth();
+            plugin.restoreRealHealth(sender);
             sender.sendMessage(ChatColor.YELLOW + "Damage scaling is now disabled.");
             return true;
         }
 
-        sender.sendMessage(ChatColor.RED + "Usage: /" + label + " <enable|disable>");
+        if (action.equals("reload")) {
+            sender.sendMessage(ChatColor.GRAY + "Reloading configuration...");
+            plugin.reloadSettingsAsync(sender).whenComplete((settings, failure) -> {
+                if (failure != null) {
+                    sender.sendMessage(ChatColor.RED + "Could not reload config.yml: " + failure.getMessage()
+                        + ". Kept the current settings.");
+                    return;
+                }
+                sender.sendMessage(ChatColor.GREEN + "Configuration reloaded. Active mode: "
+                    + settings.getActiveMode().name().toLowerCase(Locale.ROOT) + ".");
+                for (String warning : settings.getWarnings()) {
+                    sender.sendMessage(ChatColor.YELLOW + warning);
+                }
+            });
+            return true;
+        }
+
+        if (action.equals("stats")) {
+            sendStats(sender);
+            return true;
+        }
+
+        sender.sendMessage(ChatColor.RED + "Usage: /" + label + " <enable|disable|reload|stats|inspect|migrate>");
         return true;
     }
 
     /**
-     * Provides tab-completion for the command, offering enable/disable suggestions when typing the
+     * Shows an online player's recent damage and healing events, newest first. The history is read
+     * on the thread that owns the player.
+     *
+     * @param sender command invoker
+     * @param label  alias used
+     * @param args   command arguments, {@code inspect <player>}
+     */
+    private void inspect(CommandSender sender, String label, String[] args) {
+        if (args.length != 2) {
+            sender.sendMessage(ChatColor.RED + "Usage: /" + label + " inspect <player>");
+            return;
+        }
+        Player target = Bukkit.getPlayerExact(args[1]);
+        if (target == null) {
+            sender.sendMessage(ChatColor.RED + args[1] + " is not online.");
+            return;
+        }
+        HealthSlot slot = plugin.getRealHealthStore().findSlot(target);
+        if (slot == null || slot.getHistory() == null) {
+            sender.sendMessage(ChatColor.YELLOW + (slot == null ? target.getName() + " is not tracked yet."
+                : "Combat history is disabled (history.enabled: false)."));
+            return;
+        }
+        plugin.getTaskScheduler().runForEntity(target, () -> sendHistory(sender, target.getName(), slot));
+    }
+
+    /**
+     * Sends the events of a player's combat history, newest first.
+     *
+     * @param sender recipient of the report
+     * @param name   name of the inspected player
+     * @param slot   the player's health slot
+     */
+    private static void sendHistory(CommandSender sender, String name, HealthSlot slot) {
+        CombatHistory history = slot.getHistory();
+        long now = System.currentTimeMillis();
+        sender.sendMessage(ChatColor.GOLD + "Last " + history.size() + "/" + history.capacity() + " event(s) of " + name
+            + ChatColor.GRAY + String.format(Locale.ROOT, " (real health now %.2f):", slot.getRealHealth()));
+        for (int age = 0; age < history.size(); age++) {
+            int cause = history.cause(age);
+            double display = history.displayHealth(age);
+            String when = String.format(Locale.ROOT, "%7.1fs ", (history.timestamp(age) - now) / 1000.0D);
+            String change = (cause < 0 ? ChatColor.GREEN + "+" : ChatColor.RED + "-")
+                + String.format(Locale.ROOT, "%.2f", history.amount(age));
+            String real = String.format(Locale.ROOT, " real %.2f -> %.2f", history.realBefore(age), history.realAfter(age));
+            String shown = Double.isNaN(display) ? " display deferred" : String.format(Locale.ROOT, " display %.2f", display);
+            sender.sendMessage(ChatColor.GRAY + when + ChatColor.AQUA + describeCause(cause) + " " + change
+                + ChatColor.WHITE + real + ChatColor.GRAY + shown);
+        }
+    }
+
+    /**
+     * Names a combat history cause code.
+     *
+     * @param cause damage cause ordinal, or a negative regain code
+     * @return name of the damage cause or regain reason
+     */
+    private static String describeCause(int cause) {
+        if (cause >= 0) {
+            return cause < DAMAGE_CAUSES.length ? DAMAGE_CAUSES[cause].name() : "DAMAGE#" + cause;
+        }
+        int reason = -1 - cause;
+        return reason < REGAIN_REASONS.length ? REGAIN_REASONS[reason].name() : "REGAIN#" + reason;
+    }
+
+    /**
+     * Starts moving {@code playerdata/*.yml} into the active storage backend, optionally pruning
+     * records at full health.
+     *
+     * @param sender command invoker
+     * @param label  alias used
+     * @param args   command arguments, {@code migrate [prune]}
+     */
+    private void migrate(CommandSender sender, String label, String[] args) {
+        boolean prune = args.length == 2 && args[1].equalsIgnoreCase("prune");
+        if (args.length > 2 || (args.length == 2 && !prune)) {
+            sender.sendMessage(ChatColor.RED + "Usage: /" + label + " migrate [prune]");
+            return;
+        }
+        boolean movable = plugin.getRealHealthStore().acceptsLegacyImport();
+        if (!movable && !prune) {
+            sender.sendMessage(ChatColor.YELLOW + "The active storage backend cannot import player files; "
+                + "use /" + label + " migrate prune to only remove full-health records.");
+            return;
+        }
+        if (!plugin.migratePlayerData(sender, prune)) {
+            sender.sendMessage(ChatColor.RED + "A player data migration is already running.");
+            return;
+        }
+        String task = !movable ? "Pruning full-health records from playerdata"
+            : prune ? "Migrating playerdata into the active storage backend and pruning full-health records"
+            : "Migrating playerdata into the active storage backend";
+        sender.sendMessage(ChatColor.GRAY + task + "...");
+    }
+
+    /**
+     * Sends handler and storage timings collected since the plugin was enabled.
+     *
+     * @param sender recipient of the report
+     */
+    private void sendStats(CommandSender sender) {
+        PluginMetrics metrics = plugin.getMetrics();
+        if (!metrics.isEnabled()) {
+            sender.sendMessage(ChatColor.YELLOW + "Metrics are disabled (metrics.enabled: false).");
+            return;
+        }
+
+        long uptimeSeconds = Math.max(1L, (System.currentTimeMillis() - metrics.getStartedAtMillis()) / 1000L);
+        sender.sendMessage(ChatColor.GOLD + "DamageScaling stats over the last " + uptimeSeconds + "s:");
+        for (PluginMetrics.Named handler : metrics.getHandlers()) {
+            sender.sendMessage(formatTimer(handler.label(), handler.histogram(), uptimeSeconds));
+        }
+        for (PluginMetrics.Named operation : metrics.getStorage()) {
+            sender.sendMessage(formatTimer("storage " + operation.label(), operation.histogram(), uptimeSeconds));
+        }
+        sender.sendMessage(ChatColor.AQUA + "storage written " + ChatColor.WHITE
+            + String.format(Locale.ROOT, "%.1f KiB", metrics.getBytesWritten() / 1024.0D)
+            + ChatColor.GRAY + ", " + plugin.getRealHealthStore().getPendingWriteCount() + " write(s) queued");
+    }
+
+    /**
+     * Formats one histogram as a single chat line.
+     *
+     * @param label         name shown for the histogram
+     * @param histogram     recorded samples
+     * @param uptimeSeconds collection window used for the rate
+     * @return formatted line
+     */
+    private static String formatTimer(String label, LatencyHistogram histogram, long uptimeSeconds) {
+        long count = histogram.count();
+        double averageMicros = count == 0L ? 0.0D : histogram.sumNanos() / 1000.0D / count;
+        return ChatColor.AQUA + label + " " + ChatColor.WHITE + count + ChatColor.GRAY
+            + String.format(Locale.ROOT, " (%.1f/s) avg %.1fus p99 <=%dus max %dus", (double) count / uptimeSeconds,
+            averageMicros, histogram.percentileUpperBoundNanos(0.99D) / 1000L, histogram.maxNanos() / 1000L);
+    }
+
+    /**
+     * Provides tab-completion for the command, offering subcommand suggestions when typing the
      * first argument.
      *
      * @param sender source requesting completions
@@ -83,7 +276,19 @@ public class DamageScalingCommand implements CommandExecutor, TabCompleter {
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length == 1) {
-            return Arrays.asList("enable", "disable");
+            return Arrays.asList("enable", "disable", "reload", "stats", "inspect", "migrate");
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("inspect")) {
+            List<String> names = new ArrayList<>();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (player.getName().regionMatches(true, 0, args[1], 0, args[1].length())) {
+                    names.add(player.getName());
+                }
+            }
+            return names;
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("migrate")) {
+            return Collections.singletonList("prune");
         }
         return Collections.emptyList();
     }
@@ -0,0 +1,303 @@
+package me.BaddCamden.damagescaling.config;
+
+import me.BaddCamden.damagescaling.config.ScalingFormula.Binary;
+import me.BaddCamden.damagescaling.config.ScalingFormula.Call;
+import me.BaddCamden.damagescaling.config.ScalingFormula.Constant;
+import me.BaddCamden.damagescaling.config.ScalingFormula.Negate;
+import me.BaddCamden.damagescaling.config.ScalingFormula.Node;
+import me.BaddCamden.damagescaling.config.ScalingFormula.Variable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Emits a minimal class file implementing {@link ScalingCurve} whose {@code scale} method
+ * evaluates a folded {@link ScalingFormula} tree, and defines it as a hidden class. The method body
+ * is a straight sequence of {@code double} instructions and {@link Math} calls with no branches, so
+ * it needs no stack map frames and the JIT can inline it like any small curve.
+ */
+final class FormulaClassWriter {
+
+    private static final int CLASS_FILE_VERSION = 65;
+    private static final String CLASS_NAME = "me/BaddCamden/damagescaling/config/CompiledFormula";
+    private static final String CURVE_NAME = "me/BaddCamden/damagescaling/config/ScalingCurve";
+    private static final String FORMULA_NAME = "me/BaddCamden/damagescaling/config/ScalingFormula";
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int DCONST_0 = 0x0e;
+    private static final int DCONST_1 = 0x0f;
+    private static final int LDC2_W = 0x14;
+    private static final int DLOAD_1 = 0x27;
+    private static final int DLOAD_3 = 0x29;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int DNEG = 0x77;
+    private static final int DRETURN = 0xaf;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+
+    private static final int TAG_UTF8 = 1;
+    private static final int TAG_DOUBLE = 6;
+    private static final int TAG_CLASS = 7;
+    private static final int TAG_METHODREF = 10;
+    private static final int TAG_NAME_AND_TYPE = 12;
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final Map<String, Integer> poolIndexes = new HashMap<>();
+    private int poolCount = 1;
+
+    /**
+     * Hidden constructor; instances only live for the duration of {@link #define}.
+     */
+    private FormulaClassWriter() {
+    }
+
+    /**
+     * Generates, defines and instantiates the class for a formula.
+     *
+     * @param lookup full-privilege lookup in this package, which hosts the hidden class
+     * @param tree   folded formula without {@code minimum} variables
+     * @return new curve evaluating the formula
+     * @throws ReflectiveOperationException when the generated class cannot be instantiated
+     */
+    static ScalingCurve define(MethodHandles.Lookup lookup, Node tree) throws ReflectiveOperationException {
+        byte[] classFile = new FormulaClassWriter().write(tree);
+        Class<?> type = lookup.defineHiddenClass(classFile, true).lookupClass();
+        return (ScalingCurve) type.getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * Writes the complete class file.
+     *
+     * @param tree formula evaluated by {@code scale}
+     * @return class file bytes
+     */
+    private byte[] write(Node tree) {
+        try {
+            ByteArrayOutputStream initBytes = new ByteArrayOutputStream();
+            DataOutputStream init = new DataOutputStream(initBytes);
+            init.writeByte(ALOAD_0);
+            init.writeByte(INVOKESPECIAL);
+            init.writeShort(methodRef("java/lang/Object", "<init>", "()V"));
+            init.writeByte(RETURN);
+
+            ByteArrayOutputStream scaleBytes = new ByteArrayOutputStream();
+            DataOutputStream scale = new DataOutputStream(scaleBytes);
+            emit(scale, tree);
+            scale.writeByte(INVOKESTATIC);
+            scale.writeShort(methodRef(FORMULA_NAME, "sanitize", "(D)D"));
+            scale.writeByte(DRETURN);
+
+            int thisClass = classRef(CLASS_NAME);
+            int superClass = classRef("java/lang/Object");
+            int curveInterface = classRef(CURVE_NAME);
+            int initName = utf8("<init>");
+            int initDescriptor = utf8("()V");
+            int scaleName = utf8("scale");
+            int scaleDescriptor = utf8("(DD)D");
+            int codeName = utf8("Code");
+
+            ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(classBytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(CLASS_FILE_VERSION);
+            out.writeShort(poolCount);
+            poolBytes.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(curveInterface);
+            out.writeShort(0);
+            out.writeShort(2);
+            writeMethod(out, initName, initDescriptor, codeName, 1, 1, initBytes.toByteArray());
+            writeMethod(out, scaleName, scaleDescriptor, codeName, 2 * tree.depth(), 5, scaleBytes.toByteArray());
+            out.writeShort(0);
+            return classBytes.toByteArray();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Appends the instructions that leave a node's value on the operand stack.
+     *
+     * @param code method body being written
+     * @param node node to evaluate
+     * @throws IOException never, the target is in memory
+     */
+    private void emit(DataOutputStream code, Node node) throws IOException {
+        switch (node) {
+            case Constant constant -> {
+                long bits = Double.doubleToRawLongBits(constant.value());
+                if (bits == Double.doubleToRawLongBits(0.0D)) {
+                    code.writeByte(DCONST_0);
+                } else if (bits == Double.doubleToRawLongBits(1.0D)) {
+                    code.writeByte(DCONST_1);
+                } else {
+                    code.writeByte(LDC2_W);
+                    code.writeShort(doubleConstant(constant.value()));
+                }
+            }
+            case Variable variable -> {
+                if (variable.which() == Variable.REAL) {
+                    code.writeByte(DLOAD_1);
+                } else if (variable.which() == Variable.MAX) {
+                    code.writeByte(DLOAD_3);
+                } else {
+                    throw new IllegalStateException("Formula must be folded before it is compiled");
+                }
+            }
+            case Negate negate -> {
+                emit(code, negate.operand());
+                code.writeByte(DNEG);
+            }
+            case Binary binary -> {
+                emit(code, binary.left());
+                emit(code, binary.right());
+                code.writeByte(binary.operator().opcode);
+            }
+            case Call call -> {
+                for (Node argument : call.arguments()) {
+                    emit(code, argument);
+                }
+                code.writeByte(INVOKESTATIC);
+                code.writeShort(methodRef(call.function().owner, call.function().methodName,
+                    call.function().descriptor()));
+            }
+        }
+    }
+
+    /**
+     * Writes a public method with a single {@code Code} attribute.
+     *
+     * @param out        class file being written
+     * @param name       pool index of the method name
+     * @param descriptor pool index of the method descriptor
+     * @param codeName   pool index of the string {@code Code}
+     * @param maxStack   operand stack size in slots
+     * @param maxLocals  local variable slots, including {@code this} and the arguments
+     * @param code       method bytecode
+     * @throws IOException never, the target is in memory
+     */
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeName, int maxStack,
+                                    int maxLocals, byte[] code) throws IOException {
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    /**
+     * Adds a UTF-8 entry to the constant pool, reusing an identical one.
+     *
+     * @param value string to store
+     * @return pool index
+     * @throws IOException never, the pool is in memory
+     */
+    private int utf8(String value) throws IOException {
+        Integer existing = poolIndexes.get("U" + value);
+        if (existing != null) {
+            return existing;
+        }
+        pool.writeByte(TAG_UTF8);
+        pool.writeUTF(value);
+        return register("U" + value, 1);
+    }
+
+    /**
+     * Adds a class reference to the constant pool, reusing an identical one.
+     *
+     * @param internalName class name with slashes
+     * @return pool index
+     * @throws IOException never, the pool is in memory
+     */
+    private int classRef(String internalName) throws IOException {
+        Integer existing = poolIndexes.get("C" + internalName);
+        if (existing != null) {
+            return existing;
+        }
+        int name = utf8(internalName);
+        pool.writeByte(TAG_CLASS);
+        pool.writeShort(name);
+        return register("C" + internalName, 1);
+    }
+
+    /**
+     * Adds a method reference to the constant pool, reusing an identical one.
+     *
+     * @param owner      owning class name with slashes
+     * @param name       method name
+     * @param descriptor method descriptor
+     * @return pool index
+     * @throws IOException never, the pool is in memory
+     */
+    private int methodRef(String owner, String name, String descriptor) throws IOException {
+        String key = "M" + owner + '.' + name + descriptor;
+        Integer existing = poolIndexes.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int ownerIndex = classRef(owner);
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        pool.writeByte(TAG_NAME_AND_TYPE);
+        pool.writeShort(nameIndex);
+        pool.writeShort(descriptorIndex);
+        int nameAndType = register(key + "#nt", 1);
+        pool.writeByte(TAG_METHODREF);
+        pool.writeShort(ownerIndex);
+        pool.writeShort(nameAndType);
+        return register(key, 1);
+    }
+
+    /**
+     * Adds a {@code double} constant to the constant pool, reusing an identical one.
+     *
+     * @param value constant value
+     * @return pool index
+     * @throws IOException never, the pool is in memory
+     */
+    private int doubleConstant(double value) throws IOException {
+        String key = "D" + Double.doubleToRawLongBits(value);
+        Integer existing = poolIndexes.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        pool.writeByte(TAG_DOUBLE);
+        pool.writeDouble(value);
+        return register(key, 2);
+    }
+
+    /**
+     * Records the index of the pool entry just written.
+     *
+     * @param key   deduplication key of the entry
+     * @param slots pool slots the entry occupies, two for {@code double} constants
+     * @return index of the entry
+     */
+    private int register(String key, int slots) {
+        int index = poolCount;
+        poolCount += slots;
+        poolIndexes.put(key, index);
+        return index;
+    }
+}
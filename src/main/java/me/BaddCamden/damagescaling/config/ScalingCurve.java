@@ -0,0 +1,18 @@
+package me.BaddCamden.damagescaling.config;
+
+/**
+ * Immutable transformation from real health to unclamped display health, compiled from the active
+ * {@link ScalingMode} and its options when configuration is reloaded.
+ */
+@FunctionalInterface
+public interface ScalingCurve {
+
+    /**
+     * Applies the curve to a sanitized real health value.
+     *
+     * @param realHealth real health, never negative
+     * @param maxHealth  maximum health, always positive
+     * @return scaled display health before minimum and maximum clamping
+     */
+    double scale(double realHealth, double maxHealth);
+}
@@ -0,0 +1,162 @@
+package me.BaddCamden.damagescaling.config;
+
+/**
+ * Factory for the built-in {@link ScalingCurve} implementations. Each curve is a small final class
+ * whose options are baked into final fields, so the hot path is a single monomorphic call.
+ */
+public final class ScalingCurves {
+
+    private static final int LOOKUP_SEGMENTS = 1024;
+
+    /**
+     * Hidden constructor to prevent instantiation of this static factory.
+     */
+    private ScalingCurves() {
+    }
+
+    /**
+     * Creates the {@link ScalingMode#SQUARED_DIVIDED_BY_MAX} curve.
+     *
+     * @return curve computing {@code real² / max}
+     */
+    public static ScalingCurve squaredDividedByMax() {
+        return SquaredDividedByMax.INSTANCE;
+    }
+
+    /**
+     * Creates the {@link ScalingMode#LINEAR_FRACTION} curve.
+     *
+     * @param fraction non-negative multiplier applied to real health
+     * @return curve computing {@code real * fraction}
+     */
+    public static ScalingCurve linearFraction(double fraction) {
+        return new LinearFraction(fraction);
+    }
+
+    /**
+     * Creates the {@link ScalingMode#EXPONENTIAL_CURVE} curve. Exponents of at least one produce a
+     * smooth convex curve that is sampled into a lookup table and linearly interpolated; smaller
+     * exponents are steep near zero and keep using {@link Math#pow(double, double)} for accuracy.
+     *
+     * @param exponent   positive exponent applied to the normalized real health
+     * @param multiplier non-negative multiplier applied to the result
+     * @return curve computing {@code max * multiplier * (real / max)^exponent}
+     */
+    public static ScalingCurve exponential(double exponent, double multiplier) {
+        if (exponent >= 1.0D) {
+            double[] samples = new double[LOOKUP_SEGMENTS + 1];
+            for (int i = 0; i <= LOOKUP_SEGMENTS; i++) {
+                samples[i] = multiplier * Math.pow((double) i / LOOKUP_SEGMENTS, exponent);
+            }
+            return new Sampled(samples);
+        }
+        return new Exponential(exponent, multiplier);
+    }
+
+    /**
+     * Creates the {@link ScalingMode#KEYFRAMES} curve. The piecewise linear curve through the
+     * keyframes is sampled into the same lookup table the exponential curve uses, so evaluating it
+     * costs one index and one interpolation however many keyframes there are. Before the first and
+     * after the last keyframe the curve stays flat.
+     *
+     * @param reals    normalized real health of each keyframe, strictly increasing within {@code [0, 1]}
+     * @param displays normalized display health of each keyframe, same length as {@code reals}
+     * @return curve computing {@code max * f(real / max)} for the piecewise linear {@code f}
+     * @throws IllegalArgumentException when no keyframes are given or the arrays differ in length
+     */
+    public static ScalingCurve keyframes(double[] reals, double[] displays) {
+        if (reals.length == 0 || reals.length != displays.length) {
+            throw new IllegalArgumentException("Keyframes need matching, non-empty real and display values");
+        }
+        double[] samples = new double[LOOKUP_SEGMENTS + 1];
+        int segment = 0;
+        for (int i = 0; i <= LOOKUP_SEGMENTS; i++) {
+            double x = (double) i / LOOKUP_SEGMENTS;
+            while (segment < reals.length && reals[segment] < x) {
+                segment++;
+            }
+            if (segment == 0) {
+                samples[i] = displays[0];
+            } else if (segment == reals.length) {
+                samples[i] = displays[reals.length - 1];
+            } else {
+                double start = reals[segment - 1];
+                double t = (x - start) / (reals[segment] - start);
+                samples[i] = displays[segment - 1] + (displays[segment] - displays[segment - 1]) * t;
+            }
+        }
+        return new Sampled(samples);
+    }
+
+    /**
+     * Scales real health by squaring it and dividing by the maximum health.
+     */
+    private static final class SquaredDividedByMax implements ScalingCurve {
+
+        private static final SquaredDividedByMax INSTANCE = new SquaredDividedByMax();
+
+        @Override
+        public double scale(double realHealth, double maxHealth) {
+            return (realHealth * realHealth) / maxHealth;
+        }
+    }
+
+    /**
+     * Scales real health by a constant fraction.
+     */
+    private static final class LinearFraction implements ScalingCurve {
+
+        private final double fraction;
+
+        private LinearFraction(double fraction) {
+            this.fraction = fraction;
+        }
+
+        @Override
+        public double scale(double realHealth, double maxHealth) {
+            return realHealth * fraction;
+        }
+    }
+
+    /**
+     * Evaluates the exponential curve directly with {@link Math#pow(double, double)}.
+     */
+    private static final class Exponential implements ScalingCurve {
+
+        private final double exponent;
+        private final double multiplier;
+
+        private Exponential(double exponent, double multiplier) {
+            this.exponent = exponent;
+            this.multiplier = multiplier;
+        }
+
+        @Override
+        public double scale(double realHealth, double maxHealth) {
+            double normalized = Math.min(realHealth, maxHealth) / maxHealth;
+            return maxHealth * multiplier * Math.pow(normalized, exponent);
+        }
+    }
+
+    /**
+     * Evaluates a normalized curve from a table of values sampled at uniform steps over
+     * {@code [0, 1]}, interpolating linearly between neighbouring samples and scaling the result by
+     * the maximum health.
+     */
+    private static final class Sampled implements ScalingCurve {
+
+        private final double[] samples;
+
+        private Sampled(double[] samples) {
+            this.samples = samples;
+        }
+
+        @Override
+        public double scale(double realHealth, double maxHealth) {
+            double position = Math.min(realHealth, maxHealth) / maxHealth * LOOKUP_SEGMENTS;
+            int index = Math.min((int) position, LOOKUP_SEGMENTS - 1);
+            double lower = samples[index];
+            return maxHealth * (lower + (samples[index + 1] - lower) * (position - index));
+        }
+    }
+}
@@ -0,0 +1,640 @@
+package me.BaddCamden.damagescaling.config;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses the {@link ScalingMode#FORMULA} expression from configuration and compiles it into a
+ * {@link ScalingCurve}. The expression is parsed once per reload into a small syntax tree, constant
+ * subexpressions are folded, and the tree is then emitted as the body of a hidden class
+ * implementing {@link ScalingCurve#scale(double, double)}. The generated method is straight-line
+ * bytecode over the two arguments, so the JIT treats it like a hand-written curve.
+ *
+ * <p>Supported syntax: numbers, the variables {@code real}, {@code max} and {@code minimum} (the
+ * configured minimum display health), the operators {@code + - * / %} and right-associative
+ * {@code ^} for powers, parentheses, and the functions {@code min}, {@code max}, {@code pow},
+ * {@code sqrt}, {@code abs}, {@code exp}, {@code log}, {@code floor}, {@code ceil} and
+ * {@code clamp(value, low, high)}. {@code max} is the variable unless it is followed by an opening
+ * parenthesis. {@code clamp} never throws: when {@code low} exceeds {@code high} it returns
+ * {@code high}, and a {@code NaN} bound makes the result {@code NaN}, which shows as zero.
+ */
+public final class ScalingFormula {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final String source;
+    private int position;
+
+    /**
+     * Creates a parser positioned at the start of an expression.
+     *
+     * @param source formula text
+     */
+    private ScalingFormula(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Parses and compiles an expression.
+     *
+     * @param expression           formula text
+     * @param minimumDisplayHealth value of the {@code minimum} variable
+     * @return compiled curve evaluating the formula
+     * @throws IllegalArgumentException when the expression is not valid, naming the offending position
+     */
+    public static ScalingCurve compile(String expression, double minimumDisplayHealth) {
+        Node tree = parse(expression).fold(minimumDisplayHealth);
+        try {
+            return FormulaClassWriter.define(LOOKUP, tree);
+        } catch (ReflectiveOperationException | LinkageError exception) {
+            return new Interpreted(tree);
+        }
+    }
+
+    /**
+     * Parses an expression into a syntax tree.
+     *
+     * @param expression formula text
+     * @return root of the syntax tree
+     * @throws IllegalArgumentException when the expression is not valid
+     */
+    static Node parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Formula is empty");
+        }
+        ScalingFormula parser = new ScalingFormula(expression);
+        Node root = parser.parseSum();
+        parser.skipWhitespace();
+        if (parser.position < expression.length()) {
+            throw parser.error("Unexpected '" + expression.charAt(parser.position) + "'");
+        }
+        return root;
+    }
+
+    /**
+     * Replaces a {@code NaN} result with zero so an undefined formula value, such as the square
+     * root of a negative number, never reaches {@code setHealth}. Called from generated code.
+     *
+     * @param value formula result
+     * @return the value, or zero when it is {@code NaN}
+     */
+    static double sanitize(double value) {
+        return value == value ? value : 0.0D;
+    }
+
+    /**
+     * Limits a value to a range as {@code min(max(value, low), high)}. Unlike
+     * {@link Math#clamp(double, double, double)} it never throws, because bounds computed from the
+     * variables may cross during play: when {@code low} exceeds {@code high} the result is
+     * {@code high}, and a {@code NaN} operand yields {@code NaN}. Called from generated code.
+     *
+     * @param value value to limit
+     * @param low   lower bound
+     * @param high  upper bound, which wins over {@code low}
+     * @return the limited value
+     */
+    static double clamp(double value, double low, double high) {
+        return Math.min(Math.max(value, low), high);
+    }
+
+    /**
+     * Parses additions and subtractions, the loosest-binding level.
+     *
+     * @return parsed subtree
+     */
+    private Node parseSum() {
+        Node left = parseProduct();
+        while (true) {
+            if (accept('+')) {
+                left = new Binary(Operator.ADD, left, parseProduct());
+            } else if (accept('-')) {
+                left = new Binary(Operator.SUBTRACT, left, parseProduct());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    /**
+     * Parses multiplications, divisions and remainders.
+     *
+     * @return parsed subtree
+     */
+    private Node parseProduct() {
+        Node left = parseUnary();
+        while (true) {
+            if (accept('*')) {
+                left = new Binary(Operator.MULTIPLY, left, parseUnary());
+            } else if (accept('/')) {
+                left = new Binary(Operator.DIVIDE, left, parseUnary());
+            } else if (accept('%')) {
+                left = new Binary(Operator.REMAINDER, left, parseUnary());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    /**
+     * Parses a signed operand and an optional power. The exponent may itself be signed, and
+     * {@code -x^2} means {@code -(x^2)}.
+     *
+     * @return parsed subtree
+     */
+    private Node parseUnary() {
+        if (accept('-')) {
+            return new Negate(parseUnary());
+        }
+        if (accept('+')) {
+            return parseUnary();
+        }
+        Node base = parsePrimary();
+        if (accept('^')) {
+            return new Call(Function.POW, List.of(base, parseUnary()));
+        }
+        return base;
+    }
+
+    /**
+     * Parses a number, a variable, a function call or a parenthesized expression.
+     *
+     * @return parsed subtree
+     */
+    private Node parsePrimary() {
+        skipWhitespace();
+        if (position >= source.length()) {
+            throw error("Unexpected end of formula");
+        }
+        char next = source.charAt(position);
+        if (accept('(')) {
+            Node inner = parseSum();
+            expect(')');
+            return inner;
+        }
+        if (Character.isDigit(next) || next == '.') {
+            return parseNumber();
+        }
+        if (Character.isLetter(next)) {
+            int start = position;
+            while (position < source.length()
+                && (Character.isLetterOrDigit(source.charAt(position)) || source.charAt(position) == '_')) {
+                position++;
+            }
+            String name = source.substring(start, position).toLowerCase(Locale.ROOT);
+            if (accept('(')) {
+                return parseCall(name, start);
+            }
+            return switch (name) {
+                case "real" -> new Variable(Variable.REAL);
+                case "max" -> new Variable(Variable.MAX);
+                case "minimum" -> new Variable(Variable.MINIMUM);
+                default -> throw errorAt(start, "Unknown variable '" + name + "'");
+            };
+        }
+        throw error("Unexpected '" + next + "'");
+    }
+
+    /**
+     * Parses the arguments of a function call whose opening parenthesis was just consumed.
+     *
+     * @param name  function name
+     * @param start position of the name, for error messages
+     * @return call node
+     */
+    private Node parseCall(String name, int start) {
+        Function function = Function.byName(name);
+        if (function == null) {
+            throw errorAt(start, "Unknown function '" + name + "'");
+        }
+        List<Node> arguments = new ArrayList<>();
+        if (!accept(')')) {
+            do {
+                arguments.add(parseSum());
+            } while (accept(','));
+            expect(')');
+        }
+        if (arguments.size() != function.arity) {
+            throw errorAt(start, name + " takes " + function.arity + " argument(s) but got " + arguments.size());
+        }
+        return new Call(function, List.copyOf(arguments));
+    }
+
+    /**
+     * Parses a decimal number with an optional exponent.
+     *
+     * @return constant node
+     */
+    private Node parseNumber() {
+        int start = position;
+        while (position < source.length()) {
+            char next = source.charAt(position);
+            boolean exponentSign = (next == '+' || next == '-')
+                && (source.charAt(position - 1) == 'e' || source.charAt(position - 1) == 'E');
+            if (!Character.isDigit(next) && next != '.' && next != 'e' && next != 'E' && !exponentSign) {
+                break;
+            }
+            position++;
+        }
+        try {
+            return new Constant(Double.parseDouble(source.substring(start, position)));
+        } catch (NumberFormatException exception) {
+            throw errorAt(start, "Invalid number '" + source.substring(start, position) + "'");
+        }
+    }
+
+    /**
+     * Consumes the next non-blank character when it matches.
+     *
+     * @param expected character to look for
+     * @return {@code true} when the character was consumed
+     */
+    private boolean accept(char expected) {
+        skipWhitespace();
+        if (position < source.length() && source.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Consumes the next non-blank character, which must match.
+     *
+     * @param expected required character
+     * @throws IllegalArgumentException when the character is missing
+     */
+    private void expect(char expected) {
+        if (!accept(expected)) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    /**
+     * Advances past whitespace.
+     */
+    private void skipWhitespace() {
+        while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+            position++;
+        }
+    }
+
+    /**
+     * Builds a syntax error at the current position.
+     *
+     * @param message description of the problem
+     * @return exception to throw
+     */
+    private IllegalArgumentException error(String message) {
+        return errorAt(position, message);
+    }
+
+    /**
+     * Builds a syntax error at a given position.
+     *
+     * @param at      zero-based position in the expression
+     * @param message description of the problem
+     * @return exception to throw
+     */
+    private IllegalArgumentException errorAt(int at, String message) {
+        return new IllegalArgumentException(message + " at position " + (at + 1) + " in '" + source + "'");
+    }
+
+    /**
+     * Binary arithmetic operators, each mapped to one JVM instruction.
+     */
+    enum Operator {
+        /** Addition, {@code dadd}. */
+        ADD(0x63),
+        /** Subtraction, {@code dsub}. */
+        SUBTRACT(0x67),
+        /** Multiplication, {@code dmul}. */
+        MULTIPLY(0x6b),
+        /** Division, {@code ddiv}. */
+        DIVIDE(0x6f),
+        /** Remainder, {@code drem}. */
+        REMAINDER(0x73);
+
+        /** JVM opcode computing the operator on two doubles. */
+        final int opcode;
+
+        /**
+         * Binds an operator to its instruction.
+         *
+         * @param opcode JVM opcode computing the operator
+         */
+        Operator(int opcode) {
+            this.opcode = opcode;
+        }
+
+        /**
+         * Applies the operator, used for constant folding and interpretation.
+         *
+         * @param left  left operand
+         * @param right right operand
+         * @return result
+         */
+        double apply(double left, double right) {
+            return switch (this) {
+                case ADD -> left + right;
+                case SUBTRACT -> left - right;
+                case MULTIPLY -> left * right;
+                case DIVIDE -> left / right;
+                case REMAINDER -> left % right;
+            };
+        }
+    }
+
+    /**
+     * Functions callable from a formula, each backed by a static method of {@link Math}, except
+     * {@code clamp}, which uses the non-throwing {@link ScalingFormula#clamp(double, double, double)}.
+     */
+    enum Function {
+        /** Smaller of two values. */
+        MIN("min", 2),
+        /** Larger of two values. */
+        MAX("max", 2),
+        /** First value raised to the second. */
+        POW("pow", 2),
+        /** Square root. */
+        SQRT("sqrt", 1),
+        /** Absolute value. */
+        ABS("abs", 1),
+        /** Euler's number raised to the value. */
+        EXP("exp", 1),
+        /** Natural logarithm. */
+        LOG("log", 1),
+        /** Largest integer not above the value. */
+        FLOOR("floor", 1),
+        /** Smallest integer not below the value. */
+        CEIL("ceil", 1),
+        /** Value limited to a range, returning the upper bound when the bounds cross. */
+        CLAMP("clamp", 3, "me/BaddCamden/damagescaling/config/ScalingFormula");
+
+        /** Name in formulas and of the backing static method. */
+        final String methodName;
+        /** Number of arguments. */
+        final int arity;
+        /** Internal name of the class declaring the backing method. */
+        final String owner;
+
+        /**
+         * Binds a function to the {@link Math} method of the same name.
+         *
+         * @param methodName formula and method name
+         * @param arity      number of arguments
+         */
+        Function(String methodName, int arity) {
+            this(methodName, arity, "java/lang/Math");
+        }
+
+        /**
+         * Binds a function to a static method of the given class.
+         *
+         * @param methodName formula and method name
+         * @param arity      number of arguments
+         * @param owner      internal name of the declaring class
+         */
+        Function(String methodName, int arity, String owner) {
+            this.methodName = methodName;
+            this.arity = arity;
+            this.owner = owner;
+        }
+
+        /**
+         * Returns the JVM descriptor of the backing method.
+         *
+         * @return descriptor taking {@link #arity} doubles and returning a double
+         */
+        String descriptor() {
+            return "(" + "D".repeat(arity) + ")D";
+        }
+
+        /**
+         * Calls the function, used for constant folding and interpretation.
+         *
+         * @param arguments argument values, {@link #arity} of them
+         * @return result
+         */
+        double apply(double[] arguments) {
+            return switch (this) {
+                case MIN -> Math.min(arguments[0], arguments[1]);
+                case MAX -> Math.max(arguments[0], arguments[1]);
+                case POW -> Math.pow(arguments[0], arguments[1]);
+                case SQRT -> Math.sqrt(arguments[0]);
+                case ABS -> Math.abs(arguments[0]);
+                case EXP -> Math.exp(arguments[0]);
+                case LOG -> Math.log(arguments[0]);
+                case FLOOR -> Math.floor(arguments[0]);
+                case CEIL -> Math.ceil(arguments[0]);
+                case CLAMP -> clamp(arguments[0], arguments[1], arguments[2]);
+            };
+        }
+
+        /**
+         * Looks up a function by its formula name.
+         *
+         * @param name lower-case function name
+         * @return matching function, or {@code null} when there is none
+         */
+        static Function byName(String name) {
+            for (Function function : values()) {
+                if (function.methodName.equals(name)) {
+                    return function;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Node of a parsed formula.
+     */
+    sealed interface Node permits Constant, Variable, Negate, Binary, Call {
+
+        /**
+         * Evaluates the node directly, used to fold constants and when bytecode cannot be defined.
+         *
+         * @param real    real health
+         * @param max     maximum health
+         * @param minimum minimum display health
+         * @return node value
+         */
+        double evaluate(double real, double max, double minimum);
+
+        /**
+         * Substitutes the {@code minimum} variable and collapses every subtree that no longer
+         * depends on a variable into a constant.
+         *
+         * @param minimum minimum display health
+         * @return equivalent, possibly smaller tree
+         */
+        Node fold(double minimum);
+
+        /**
+         * Returns how many doubles the node's bytecode keeps on the operand stack at once.
+         *
+         * @return maximum stack depth in values
+         */
+        int depth();
+    }
+
+    /**
+     * Literal number.
+     *
+     * @param value the number
+     */
+    record Constant(double value) implements Node {
+
+        @Override
+        public double evaluate(double real, double max, double minimum) {
+            return value;
+        }
+
+        @Override
+        public Node fold(double minimum) {
+            return this;
+        }
+
+        @Override
+        public int depth() {
+            return 1;
+        }
+    }
+
+    /**
+     * Reference to one of the formula's inputs.
+     *
+     * @param which {@link #REAL}, {@link #MAX} or {@link #MINIMUM}
+     */
+    record Variable(int which) implements Node {
+
+        static final int REAL = 0;
+        static final int MAX = 1;
+        static final int MINIMUM = 2;
+
+        @Override
+        public double evaluate(double real, double max, double minimum) {
+            return which == REAL ? real : which == MAX ? max : minimum;
+        }
+
+        @Override
+        public Node fold(double minimum) {
+            return which == MINIMUM ? new Constant(minimum) : this;
+        }
+
+        @Override
+        public int depth() {
+            return 1;
+        }
+    }
+
+    /**
+     * Unary minus.
+     *
+     * @param operand negated node
+     */
+    record Negate(Node operand) implements Node {
+
+        @Override
+        public double evaluate(double real, double max, double minimum) {
+            return -operand.evaluate(real, max, minimum);
+        }
+
+        @Override
+        public Node fold(double minimum) {
+            Node folded = operand.fold(minimum);
+            return folded instanceof Constant constant ? new Constant(-constant.value()) : new Negate(folded);
+        }
+
+        @Override
+        public int depth() {
+            return operand.depth();
+        }
+    }
+
+    /**
+     * Arithmetic on two operands.
+     *
+     * @param operator operation to apply
+     * @param left     left operand
+     * @param right    right operand
+     */
+    record Binary(Operator operator, Node left, Node right) implements Node {
+
+        @Override
+        public double evaluate(double real, double max, double minimum) {
+            return operator.apply(left.evaluate(real, max, minimum), right.evaluate(real, max, minimum));
+        }
+
+        @Override
+        public Node fold(double minimum) {
+            Node foldedLeft = left.fold(minimum);
+            Node foldedRight = right.fold(minimum);
+            if (foldedLeft instanceof Constant l && foldedRight instanceof Constant r) {
+                return new Constant(operator.apply(l.value(), r.value()));
+            }
+            return new Binary(operator, foldedLeft, foldedRight);
+        }
+
+        @Override
+        public int depth() {
+            return Math.max(left.depth(), 1 + right.depth());
+        }
+    }
+
+    /**
+     * Call of a {@link Function}.
+     *
+     * @param function  called function
+     * @param arguments argument nodes, as many as the function's arity
+     */
+    record Call(Function function, List<Node> arguments) implements Node {
+
+        @Override
+        public double evaluate(double real, double max, double minimum) {
+            double[] values = new double[arguments.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = arguments.get(i).evaluate(real, max, minimum);
+            }
+            return function.apply(values);
+        }
+
+        @Override
+        public Node fold(double minimum) {
+            List<Node> folded = new ArrayList<>(arguments.size());
+            boolean constant = true;
+            for (Node argument : arguments) {
+                Node foldedArgument = argument.fold(minimum);
+                constant &= foldedArgument instanceof Constant;
+                folded.add(foldedArgument);
+            }
+            Call call = new Call(function, List.copyOf(folded));
+            return constant ? new Constant(call.evaluate(0.0D, 0.0D, minimum)) : call;
+        }
+
+        @Override
+        public int depth() {
+            int depth = 0;
+            for (int i = 0; i < arguments.size(); i++) {
+                depth = Math.max(depth, i + arguments.get(i).depth());
+            }
+            return depth;
+        }
+    }
+
+    /**
+     * Evaluates a folded tree directly, used only when the JVM refuses to define the generated
+     * class.
+     *
+     * @param tree folded formula
+     */
+    private record Interpreted(Node tree) implements ScalingCurve {
+
+        @Override
+        public double scale(double realHealth, double maxHealth) {
+            return sanitize(tree.evaluate(realHealth, maxHealth, 0.0D));
+        }
+    }
+}
@@ -11,7 +11,11 @@ public enum ScalingMode {
     /** Scales linearly based on a configured fraction of real health. */
     LINEAR_FRACTION,
     /** Uses an exponential curve to emphasize early damage or healing. */
-    EXPONENTIAL_CURVE;
+    EXPONENTIAL_CURVE,
+    /** Follows a piecewise linear curve through configured (real, display) keyframes. */
+    KEYFRAMES,
+    /** Evaluates a configured arithmetic expression compiled to bytecode at load time. */
+    FORMULA;
 
     /**
      * Attempts to parse a scaling mode from configuration-friendly text, falling back when the
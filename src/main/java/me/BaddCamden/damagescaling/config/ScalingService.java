@@ -1,31 +1,21 @@
 package me.BaddCamden.damagescaling.config;
 
 import me.BaddCamden.damagescaling.HealthUtil;
-import org.bukkit.configuration.ConfigurationSection;
+import me.BaddCamden.damagescaling.storage.HealthSlot;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
 
 /**
- * Calculates visual health values based on configured scaling strategies and provides helpers for
- * parsing configuration.
+ * Calculates visual health values based on configured scaling strategies. Settings live in one
+ * immutable {@link ScalingSettings} snapshot that reloads replace atomically, so every calculation
+ * works from a single volatile read and may run on any thread. Per-player profile curves are cached
+ * in each {@link HealthSlot} and tied to the snapshot they were resolved against.
  */
 public class ScalingService {
 
-    private static final double DEFAULT_LINEAR_FRACTION = 0.6D;
-    private static final double DEFAULT_EXPONENT = 1.25D;
-    private static final double DEFAULT_EXPONENTIAL_MULTIPLIER = 1.0D;
-    private static final double DEFAULT_MIN_DISPLAY = 0.1D;
-
-    private List<ScalingMode> priorities = new ArrayList<>();
-    private ScalingMode fallbackMode = ScalingMode.SQUARED_DIVIDED_BY_MAX;
-    private double linearFraction = DEFAULT_LINEAR_FRACTION;
-    private double exponentialExponent = DEFAULT_EXPONENT;
-    private double exponentialMultiplier = DEFAULT_EXPONENTIAL_MULTIPLIER;
-    private double minimumDisplayHealth = DEFAULT_MIN_DISPLAY;
+    private volatile ScalingSettings settings = ScalingSettings.defaults();
 
     /**
      * Reloads scaling settings from the given configuration, sanitizing values to keep gameplay
@@ -34,22 +24,26 @@ public class ScalingService {
      * @param configuration plugin configuration containing scaling options
      */
     public void reload(FileConfiguration configuration) {
-        priorities = readPriorities(configuration);
-        fallbackMode = ScalingMode.fromName(configuration.getString("scaling.mode"), ScalingMode.SQUARED_DIVIDED_BY_MAX);
+        apply(ScalingSettings.parse(configuration));
+    }
 
-        ConfigurationSection options = configuration.getConfigurationSection("scaling.options");
-        if (options != null) {
-            linearFraction = Math.max(0.0D, options.getConfigurationSection("linear_fraction") != null
-                ? options.getConfigurationSection("linear_fraction").getDouble("fraction", DEFAULT_LINEAR_FRACTION)
-                : DEFAULT_LINEAR_FRACTION);
-            ConfigurationSection exponential = options.getConfigurationSection("exponential_curve");
-            if (exponential != null) {
-                exponentialExponent = Math.max(0.1D, exponential.getDouble("exponent", DEFAULT_EXPONENT));
-                exponentialMultiplier = Math.max(0.0D, exponential.getDouble("multiplier", DEFAULT_EXPONENTIAL_MULTIPLIER));
-            }
-        }
+    /**
+     * Publishes a previously parsed settings snapshot. Calculations already in progress finish
+     * with the snapshot they started with.
+     *
+     * @param settings snapshot to make current
+     */
+    public void apply(ScalingSettings settings) {
+        this.settings = settings;
+    }
 
-        minimumDisplayHealth = Math.max(0.0D, configuration.getDouble("scaling.minimum-display-health", DEFAULT_MIN_DISPLAY));
+    /**
+     * Returns the snapshot currently used for calculations.
+     *
+     * @return current settings
+     */
+    public ScalingSettings getSettings() {
+        return settings;
     }
 
     /**
@@ -61,86 +55,71 @@ public class ScalingService {
      * @return display health clamped to valid Bukkit ranges
      */
     public double computeDisplayHealth(double realHealth, double maxHealth) {
-        double cappedMax = Math.max(maxHealth, 0.0001D);
-        double sanitizedReal = Math.max(realHealth, 0.0D);
-        ScalingMode mode = resolveMode();
-
-        double scaled;
-        switch (mode) {
-            case LINEAR_FRACTION -> scaled = sanitizedReal * linearFraction;
-            case EXPONENTIAL_CURVE -> {
-                double normalized = Math.min(sanitizedReal, cappedMax) / cappedMax;
-                scaled = cappedMax * exponentialMultiplier * Math.pow(normalized, exponentialExponent);
-            }
-            case SQUARED_DIVIDED_BY_MAX -> {
-                scaled = (sanitizedReal * sanitizedReal) / cappedMax;
-            }
-            default -> scaled = sanitizedReal;
-        }
-
-        if (sanitizedReal > 0.0D && scaled < minimumDisplayHealth) {
-            scaled = minimumDisplayHealth;
-        }
-
-        return HealthUtil.clamp(scaled, cappedMax);
+        ScalingSettings current = settings;
+        return computeDisplayHealth(current, current.getCurve(), realHealth, maxHealth);
     }
 
     /**
-     * Returns the ordered list of preferred scaling modes parsed from configuration.
+     * Converts a player's real health into display health using their profile curve. The curve is
+     * resolved from the player's world and permissions only when the slot has no curve cached for
+     * the current settings, so the usual cost is two volatile reads and a reference comparison.
      *
-     * @return unmodifiable list of scaling priorities
+     * @param player     player whose display is computed
+     * @param slot       the player's health slot, holding the cached profile curve
+     * @param realHealth actual tracked health value
+     * @param maxHealth  maximum health the player can possess
+     * @return display health clamped to valid Bukkit ranges
      */
-    public List<ScalingMode> getPriorities() {
-        return Collections.unmodifiableList(priorities);
+    public double computeDisplayHealth(Player player, HealthSlot slot, double realHealth, double maxHealth) {
+        ScalingSettings current = settings;
+        ScalingCurve curve = slot.getCachedCurve(current);
+        if (curve == null) {
+            curve = current.hasProfiles()
+                ? current.resolvePlayerCurve(player.getWorld().getName(), player::hasPermission)
+                : current.getCurve();
+            slot.cacheCurve(current, curve);
+        }
+        return computeDisplayHealth(current, curve, realHealth, maxHealth);
     }
 
     /**
-     * Parses configured scaling priorities while filtering duplicates and invalid entries.
+     * Converts a real health value into display health with a specific curve, typically one
+     * resolved through {@link ScalingSettings#getEntityCurve(org.bukkit.entity.EntityType)}.
      *
-     * @param configuration plugin configuration to read from
-     * @return ordered list of parsed modes
+     * @param settings   snapshot the curve was taken from, supplying the minimum display health
+     * @param curve      curve to apply
+     * @param realHealth actual tracked health value
+     * @param maxHealth  maximum health the entity can possess
+     * @return display health clamped to valid Bukkit ranges
      */
-    private List<ScalingMode> readPriorities(FileConfiguration configuration) {
-        List<String> rawList = configuration.getStringList("scaling.priority");
-        List<ScalingMode> parsed = new ArrayList<>();
-        for (String item : rawList) {
-            ScalingMode parsedMode = parseNullable(item);
-            if (parsedMode != null && !parsed.contains(parsedMode)) {
-                parsed.add(parsedMode);
-            }
+    public double computeDisplayHealth(ScalingSettings settings, ScalingCurve curve, double realHealth, double maxHealth) {
+        double cappedMax = Math.max(maxHealth, 0.0001D);
+        double sanitizedReal = Math.max(realHealth, 0.0D);
+        double scaled = curve.scale(sanitizedReal, cappedMax);
+
+        double minimumDisplayHealth = settings.getMinimumDisplayHealth();
+        if (sanitizedReal > 0.0D && scaled < minimumDisplayHealth) {
+            scaled = minimumDisplayHealth;
         }
-        return parsed;
+
+        return HealthUtil.clamp(scaled, cappedMax);
     }
 
     /**
-     * Resolves which scaling mode should currently be used, preferring configured priorities over
-     * the fallback.
+     * Returns the ordered list of preferred scaling modes parsed from configuration.
      *
-     * @return selected {@link ScalingMode}
+     * @return unmodifiable list of scaling priorities
      */
-    private ScalingMode resolveMode() {
-        for (ScalingMode priority : priorities) {
-            if (priority != null) {
-                return priority;
-            }
-        }
-        return fallbackMode != null ? fallbackMode : ScalingMode.SQUARED_DIVIDED_BY_MAX;
+    public List<ScalingMode> getPriorities() {
+        return settings.getPriorities();
     }
 
     /**
-     * Attempts to parse a scaling mode name, returning {@code null} when the value is invalid.
+     * Returns the scaling mode selected by the last reload.
      *
-     * @param value raw value from configuration
-     * @return parsed mode or {@code null}
+     * @return active {@link ScalingMode}
      */
-    private ScalingMode parseNullable(String value) {
-        if (value == null) {
-            return null;
-        }
-        try {
-            return ScalingMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
-        } catch (IllegalArgumentException ex) {
-            return null;
-        }
+    public ScalingMode getActiveMode() {
+        return settings.getActiveMode();
     }
 }
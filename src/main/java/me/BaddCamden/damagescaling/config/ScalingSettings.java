@@ -0,0 +1,464 @@
+package me.BaddCamden.damagescaling.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.EntityType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Immutable snapshot of the scaling options parsed from configuration, including the compiled
+ * {@link ScalingCurve} for the selected mode, the named player profiles under {@code profiles} and
+ * one curve per configured {@link EntityType}, indexed by ordinal. Snapshots are built off to the side, on any thread,
+ * and published to {@link ScalingService} with a single reference swap, so readers never observe a
+ * half-applied reload.
+ */
+public final class ScalingSettings {
+
+    private static final double DEFAULT_LINEAR_FRACTION = 0.6D;
+    private static final double DEFAULT_EXPONENT = 1.25D;
+    private static final double DEFAULT_EXPONENTIAL_MULTIPLIER = 1.0D;
+    private static final double DEFAULT_MIN_DISPLAY = 0.1D;
+    private static final ScalingCurve DEFAULT_KEYFRAMES = ScalingCurves.keyframes(new double[]{0.0D, 1.0D},
+        new double[]{0.0D, 1.0D});
+
+    private static final ScalingCurve DEFAULT_FORMULA = ScalingCurves.linearFraction(1.0D);
+
+    private static final ScalingSettings DEFAULTS = new ScalingSettings(List.of(), ScalingMode.SQUARED_DIVIDED_BY_MAX,
+        DEFAULT_LINEAR_FRACTION, DEFAULT_EXPONENT, DEFAULT_EXPONENTIAL_MULTIPLIER, DEFAULT_KEYFRAMES, DEFAULT_FORMULA,
+        DEFAULT_MIN_DISPLAY, null, null, List.of());
+
+    private final List<ScalingMode> priorities;
+    private final ScalingMode fallbackMode;
+    private final double linearFraction;
+    private final double exponentialExponent;
+    private final double exponentialMultiplier;
+    private final ScalingCurve keyframeCurve;
+    private final ScalingCurve formulaCurve;
+    private final double minimumDisplayHealth;
+    private final ScalingMode activeMode;
+    private final ScalingCurve curve;
+    private final ScalingCurve[] entityCurves;
+    private final List<Profile> profiles;
+    private final List<String> warnings;
+
+    /**
+     * Creates a snapshot from already sanitized values and compiles its curve.
+     *
+     * @param priorities            ordered preferred modes
+     * @param fallbackMode          mode used when no priority is valid
+     * @param linearFraction        factor for {@link ScalingMode#LINEAR_FRACTION}
+     * @param exponentialExponent   exponent for {@link ScalingMode#EXPONENTIAL_CURVE}
+     * @param exponentialMultiplier multiplier for {@link ScalingMode#EXPONENTIAL_CURVE}
+     * @param keyframeCurve         compiled curve for {@link ScalingMode#KEYFRAMES}
+     * @param formulaCurve          compiled curve for {@link ScalingMode#FORMULA}
+     * @param minimumDisplayHealth  smallest display health shown to a living player
+     * @param entityTypes           {@code entities.types} section, or {@code null} for no scaled entities
+     * @param profileSection        {@code profiles} section, or {@code null} for no player profiles
+     * @param warnings              problems found while parsing so far; more are added for profiles and entities
+     */
+    private ScalingSettings(List<ScalingMode> priorities, ScalingMode fallbackMode, double linearFraction,
+                            double exponentialExponent, double exponentialMultiplier, ScalingCurve keyframeCurve,
+                            ScalingCurve formulaCurve, double minimumDisplayHealth, ConfigurationSection entityTypes,
+                            ConfigurationSection profileSection, List<String> warnings) {
+        this.warnings = new ArrayList<>(warnings);
+        this.priorities = List.copyOf(priorities);
+        this.fallbackMode = fallbackMode;
+        this.linearFraction = linearFraction;
+        this.exponentialExponent = exponentialExponent;
+        this.exponentialMultiplier = exponentialMultiplier;
+        this.keyframeCurve = keyframeCurve;
+        this.formulaCurve = formulaCurve;
+        this.minimumDisplayHealth = minimumDisplayHealth;
+        this.activeMode = resolveMode();
+        this.curve = compileCurve(activeMode);
+        this.entityCurves = readEntityCurves(entityTypes);
+        this.profiles = readProfiles(profileSection);
+    }
+
+    /**
+     * Returns the settings used before any configuration has been loaded.
+     *
+     * @return default snapshot
+     */
+    public static ScalingSettings defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Parses scaling settings from configuration, sanitizing values to keep gameplay stable.
+     * Missing options fall back to their defaults. Safe to call off the main thread as long as the
+     * configuration object is not modified concurrently.
+     *
+     * @param configuration plugin configuration containing scaling options
+     * @return new immutable snapshot
+     */
+    public static ScalingSettings parse(FileConfiguration configuration) {
+        List<ScalingMode> priorities = readPriorities(configuration);
+        ScalingMode fallbackMode = ScalingMode.fromName(configuration.getString("scaling.mode"),
+            ScalingMode.SQUARED_DIVIDED_BY_MAX);
+
+        double linearFraction = DEFAULT_LINEAR_FRACTION;
+        double exponentialExponent = DEFAULT_EXPONENT;
+        double exponentialMultiplier = DEFAULT_EXPONENTIAL_MULTIPLIER;
+        ScalingCurve keyframeCurve = DEFAULT_KEYFRAMES;
+        String formulaExpression = null;
+        ConfigurationSection options = configuration.getConfigurationSection("scaling.options");
+        if (options != null) {
+            ConfigurationSection linear = options.getConfigurationSection("linear_fraction");
+            if (linear != null) {
+                linearFraction = Math.max(0.0D, linear.getDouble("fraction", DEFAULT_LINEAR_FRACTION));
+            }
+            ConfigurationSection exponential = options.getConfigurationSection("exponential_curve");
+            if (exponential != null) {
+                exponentialExponent = Math.max(0.1D, exponential.getDouble("exponent", DEFAULT_EXPONENT));
+                exponentialMultiplier = Math.max(0.0D, exponential.getDouble("multiplier", DEFAULT_EXPONENTIAL_MULTIPLIER));
+            }
+            ConfigurationSection keyframes = options.getConfigurationSection("keyframes");
+            if (keyframes != null) {
+                keyframeCurve = compileKeyframes(keyframes.getList("points"), DEFAULT_KEYFRAMES);
+            }
+            ConfigurationSection formula = options.getConfigurationSection("formula");
+            if (formula != null) {
+                formulaExpression = formula.getString("expression");
+            }
+        }
+
+        double minimumDisplayHealth = Math.max(0.0D,
+            configuration.getDouble("scaling.minimum-display-health", DEFAULT_MIN_DISPLAY));
+        List<String> warnings = new ArrayList<>();
+        ScalingCurve formulaCurve = formulaExpression != null
+            ? compileFormula(formulaExpression, minimumDisplayHealth, DEFAULT_FORMULA, "scaling.options.formula", warnings)
+            : DEFAULT_FORMULA;
+        return new ScalingSettings(priorities, fallbackMode, linearFraction, exponentialExponent,
+            exponentialMultiplier, keyframeCurve, formulaCurve, minimumDisplayHealth,
+            configuration.getConfigurationSection("entities.types"), configuration.getConfigurationSection("profiles"),
+            warnings);
+    }
+
+    /**
+     * Returns the ordered list of preferred scaling modes parsed from configuration.
+     *
+     * @return unmodifiable list of scaling priorities
+     */
+    public List<ScalingMode> getPriorities() {
+        return priorities;
+    }
+
+    /**
+     * Returns the scaling mode selected from the priorities and fallback.
+     *
+     * @return active {@link ScalingMode}
+     */
+    public ScalingMode getActiveMode() {
+        return activeMode;
+    }
+
+    /**
+     * Returns the compiled curve for the active mode.
+     *
+     * @return immutable scaling curve
+     */
+    public ScalingCurve getCurve() {
+        return curve;
+    }
+
+    /**
+     * Resolves the curve for a player from the first profile matching their world and
+     * permissions, falling back to the global curve. Checks permissions, so callers should cache
+     * the result rather than resolve it per event.
+     *
+     * @param worldName     name of the player's current world
+     * @param hasPermission permission check for the player
+     * @return curve to use for the player
+     */
+    public ScalingCurve resolvePlayerCurve(String worldName, Predicate<String> hasPermission) {
+        for (Profile profile : profiles) {
+            if (profile.matches(worldName, hasPermission)) {
+                return profile.curve();
+            }
+        }
+        return curve;
+    }
+
+    /**
+     * Indicates whether any player profiles are configured.
+     *
+     * @return {@code true} when {@link #resolvePlayerCurve(String, Predicate)} can differ per player
+     */
+    public boolean hasProfiles() {
+        return !profiles.isEmpty();
+    }
+
+    /**
+     * Returns the curve configured for a non-player entity type.
+     *
+     * @param type entity type to look up
+     * @return the type's curve, or {@code null} when entities of this type are not scaled
+     */
+    public ScalingCurve getEntityCurve(EntityType type) {
+        return entityCurves[type.ordinal()];
+    }
+
+    /**
+     * Returns the smallest display health shown to a player who is still alive.
+     *
+     * @return minimum display health
+     */
+    public double getMinimumDisplayHealth() {
+        return minimumDisplayHealth;
+    }
+
+    /**
+     * Returns the problems found while parsing, such as formulas that failed to compile. Each
+     * affected curve fell back to a safe default.
+     *
+     * @return unmodifiable list of human-readable warnings, empty when the configuration was clean
+     */
+    public List<String> getWarnings() {
+        return Collections.unmodifiableList(warnings);
+    }
+
+    /**
+     * Parses configured scaling priorities while filtering duplicates and invalid entries.
+     *
+     * @param configuration plugin configuration to read from
+     * @return ordered list of parsed modes
+     */
+    private static List<ScalingMode> readPriorities(FileConfiguration configuration) {
+        List<String> rawList = configuration.getStringList("scaling.priority");
+        List<ScalingMode> parsed = new ArrayList<>();
+        for (String item : rawList) {
+            ScalingMode parsedMode = ScalingMode.fromName(item, null);
+            if (parsedMode != null && !parsed.contains(parsedMode)) {
+                parsed.add(parsedMode);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Resolves which scaling mode should be used, preferring configured priorities over the
+     * fallback.
+     *
+     * @return selected {@link ScalingMode}
+     */
+    private ScalingMode resolveMode() {
+        for (ScalingMode priority : priorities) {
+            if (priority != null) {
+                return priority;
+            }
+        }
+        return fallbackMode != null ? fallbackMode : ScalingMode.SQUARED_DIVIDED_BY_MAX;
+    }
+
+    /**
+     * Resolves a curve for every entity type listed under {@code entities.types}. An entry is
+     * either a mode name or a section with an optional {@code mode} and per-mode options; anything
+     * left out inherits the global mode and options. Unknown types and player entries are skipped.
+     *
+     * @param entityTypes configured entity types, may be {@code null}
+     * @return curves indexed by {@link EntityType#ordinal()}, {@code null} entries for unscaled types
+     */
+    private ScalingCurve[] readEntityCurves(ConfigurationSection entityTypes) {
+        ScalingCurve[] curves = new ScalingCurve[EntityType.values().length];
+        if (entityTypes == null) {
+            return curves;
+        }
+
+        for (String key : entityTypes.getKeys(false)) {
+            EntityType type;
+            try {
+                type = EntityType.valueOf(key.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                continue;
+            }
+            if (type == EntityType.PLAYER) {
+                continue;
+            }
+
+            ConfigurationSection options = entityTypes.getConfigurationSection(key);
+            curves[type.ordinal()] = options != null
+                ? compileCurve(options, "entities.types." + key)
+                : compileCurve(ScalingMode.fromName(entityTypes.getString(key), activeMode));
+        }
+        return curves;
+    }
+
+    /**
+     * Reads the named player profiles in configuration order. Each profile is a section with an
+     * optional {@code mode} and per-mode options, plus {@code worlds} and/or {@code permission}
+     * conditions; a profile without either condition never matches and is skipped.
+     *
+     * @param profileSection configured profiles, may be {@code null}
+     * @return immutable list of profiles
+     */
+    private List<Profile> readProfiles(ConfigurationSection profileSection) {
+        if (profileSection == null) {
+            return List.of();
+        }
+
+        List<Profile> parsed = new ArrayList<>();
+        for (String name : profileSection.getKeys(false)) {
+            ConfigurationSection options = profileSection.getConfigurationSection(name);
+            if (options == null) {
+                continue;
+            }
+            Set<String> worlds = new HashSet<>(options.getStringList("worlds"));
+            String permission = options.getString("permission");
+            if (permission != null && permission.isBlank()) {
+                permission = null;
+            }
+            if (worlds.isEmpty() && permission == null) {
+                continue;
+            }
+            parsed.add(new Profile(name, Set.copyOf(worlds), permission, compileCurve(options, "profiles." + name)));
+        }
+        return List.copyOf(parsed);
+    }
+
+    /**
+     * Builds the curve described by a section with an optional {@code mode} and per-mode options,
+     * including keyframe {@code points} and a formula {@code expression}, inheriting anything left
+     * out from the global settings.
+     *
+     * @param options section to read
+     * @param path    configuration path of the section, for warnings
+     * @return immutable curve
+     */
+    private ScalingCurve compileCurve(ConfigurationSection options, String path) {
+        ScalingMode mode = ScalingMode.fromName(options.getString("mode"), activeMode);
+        String expression = options.getString("expression");
+        return compileCurve(mode,
+            Math.max(0.0D, options.getDouble("fraction", linearFraction)),
+            Math.max(0.1D, options.getDouble("exponent", exponentialExponent)),
+            Math.max(0.0D, options.getDouble("multiplier", exponentialMultiplier)),
+            mode == ScalingMode.KEYFRAMES ? compileKeyframes(options.getList("points"), keyframeCurve) : keyframeCurve,
+            mode == ScalingMode.FORMULA && expression != null
+                ? compileFormula(expression, minimumDisplayHealth, formulaCurve, path, warnings)
+                : formulaCurve);
+    }
+
+    /**
+     * Builds the curve for a scaling mode using this snapshot's options.
+     *
+     * @param mode mode to compile
+     * @return immutable curve implementing the mode
+     */
+    private ScalingCurve compileCurve(ScalingMode mode) {
+        return compileCurve(mode, linearFraction, exponentialExponent, exponentialMultiplier, keyframeCurve,
+            formulaCurve);
+    }
+
+    /**
+     * Builds the curve for a scaling mode from explicit options.
+     *
+     * @param mode                  mode to compile
+     * @param linearFraction        factor for {@link ScalingMode#LINEAR_FRACTION}
+     * @param exponentialExponent   exponent for {@link ScalingMode#EXPONENTIAL_CURVE}
+     * @param exponentialMultiplier multiplier for {@link ScalingMode#EXPONENTIAL_CURVE}
+     * @param keyframeCurve         compiled curve for {@link ScalingMode#KEYFRAMES}
+     * @param formulaCurve          compiled curve for {@link ScalingMode#FORMULA}
+     * @return immutable curve implementing the mode
+     */
+    private static ScalingCurve compileCurve(ScalingMode mode, double linearFraction, double exponentialExponent,
+                                             double exponentialMultiplier, ScalingCurve keyframeCurve,
+                                             ScalingCurve formulaCurve) {
+        return switch (mode) {
+            case LINEAR_FRACTION -> ScalingCurves.linearFraction(linearFraction);
+            case EXPONENTIAL_CURVE -> ScalingCurves.exponential(exponentialExponent, exponentialMultiplier);
+            case SQUARED_DIVIDED_BY_MAX -> ScalingCurves.squaredDividedByMax();
+            case KEYFRAMES -> keyframeCurve;
+            case FORMULA -> formulaCurve;
+        };
+    }
+
+    /**
+     * Compiles a formula expression, recording a warning and returning the fallback when it is
+     * not valid.
+     *
+     * @param expression           formula text
+     * @param minimumDisplayHealth value of the formula's {@code minimum} variable
+     * @param fallback             curve used when the expression does not compile
+     * @param path                 configuration path of the expression, for the warning
+     * @param warnings             list collecting parse problems
+     * @return compiled formula or the fallback
+     */
+    private static ScalingCurve compileFormula(String expression, double minimumDisplayHealth, ScalingCurve fallback,
+                                               String path, List<String> warnings) {
+        try {
+            return ScalingFormula.compile(expression, minimumDisplayHealth);
+        } catch (IllegalArgumentException exception) {
+            warnings.add(path + ": " + exception.getMessage());
+            return fallback;
+        }
+    }
+
+    /**
+     * Compiles a list of {@code [real, display]} pairs, both fractions of maximum health, into a
+     * keyframe curve. Values are clamped to {@code [0, 1]}, malformed entries are skipped, pairs
+     * are sorted by real health and, where several share a real health, the last one listed wins.
+     *
+     * @param points   configured keyframes, may be {@code null}
+     * @param fallback curve returned when no usable keyframe is configured
+     * @return compiled keyframe curve
+     */
+    private static ScalingCurve compileKeyframes(List<?> points, ScalingCurve fallback) {
+        if (points == null) {
+            return fallback;
+        }
+
+        TreeMap<Double, Double> keyframes = new TreeMap<>();
+        for (Object point : points) {
+            if (point instanceof List<?> pair && pair.size() == 2
+                && pair.get(0) instanceof Number real && pair.get(1) instanceof Number display
+                && Double.isFinite(real.doubleValue()) && Double.isFinite(display.doubleValue())) {
+                keyframes.put(Math.clamp(real.doubleValue(), 0.0D, 1.0D), Math.clamp(display.doubleValue(), 0.0D, 1.0D));
+            }
+        }
+        if (keyframes.isEmpty()) {
+            return fallback;
+        }
+
+        double[] reals = new double[keyframes.size()];
+        double[] displays = new double[keyframes.size()];
+        int index = 0;
+        for (Map.Entry<Double, Double> keyframe : keyframes.entrySet()) {
+            reals[index] = keyframe.getKey();
+            displays[index] = keyframe.getValue();
+            index++;
+        }
+        return ScalingCurves.keyframes(reals, displays);
+    }
+
+    /**
+     * Named player profile selected by world and/or permission.
+     *
+     * @param name       profile name from configuration
+     * @param worlds     worlds the profile applies in; empty for any world
+     * @param permission permission a player needs, or {@code null} for none
+     * @param curve      curve applied to matching players
+     */
+    private record Profile(String name, Set<String> worlds, String permission, ScalingCurve curve) {
+
+        /**
+         * Tests whether a player in the given world with the given permissions uses this profile.
+         *
+         * @param worldName     name of the player's world
+         * @param hasPermission permission check for the player
+         * @return {@code true} when every configured condition holds
+         */
+        boolean matches(String worldName, Predicate<String> hasPermission) {
+            return (worlds.isEmpty() || worlds.contains(worldName))
+                && (permission == null || hasPermission.test(permission));
+        }
+    }
+}
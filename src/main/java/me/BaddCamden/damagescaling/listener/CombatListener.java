@@ -0,0 +1,182 @@
+package me.BaddCamden.damagescaling.listener;
+
+import me.BaddCamden.damagescaling.DamageScalingPlugin;
+import me.BaddCamden.damagescaling.HealthUtil;
+import me.BaddCamden.damagescaling.config.ScalingService;
+import me.BaddCamden.damagescaling.metrics.PluginMetrics;
+import me.BaddCamden.damagescaling.storage.CombatHistory;
+import me.BaddCamden.damagescaling.storage.HealthSlot;
+import me.BaddCamden.damagescaling.storage.RealHealthStore;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityRegainHealthEvent;
+
+/**
+ * Routes player damage and healing through the real health pool and shows the scaled result. The
+ * plugin registers this listener only while scaling is enabled, so a disabled plugin adds nothing
+ * to the damage and regen event paths.
+ */
+public class CombatListener implements Listener {
+
+    private final RealHealthStore realHealthStore;
+    private final ScalingService scalingService;
+    private final DisplayUpdateBatcher displayUpdateBatcher;
+    private final RegenBatcher regenBatcher;
+    private final PluginMetrics metrics;
+
+    /**
+     * Builds a listener bound to the plugin's services so health changes can be coordinated.
+     *
+     * @param plugin owning plugin instance
+     */
+    public CombatListener(DamageScalingPlugin plugin) {
+        this.realHealthStore = plugin.getRealHealthStore();
+        this.scalingService = plugin.getScalingService();
+        this.displayUpdateBatcher = plugin.getDisplayUpdateBatcher();
+        this.regenBatcher = plugin.getRegenBatcher();
+        this.metrics = plugin.getMetrics();
+    }
+
+    /**
+     * Overrides incoming damage to adjust the stored real health and display the scaled value.
+     * Lethal damage is always applied immediately; other display updates are deferred to the end of
+     * the tick when coalescing is on.
+     *
+     * @param event entity damage event affecting a player
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onPlayerDamage(EntityDamageEvent event) {
+        if (!(event.getEntity() instanceof Player player)) {
+            return;
+        }
+
+        long start = metrics.damage.start();
+        handleDamage(event, player);
+        metrics.damage.recordSince(start);
+    }
+
+    /**
+     * Applies a damage event to a player's real health and display, after folding in any
+     * regeneration still buffered for the next regen sweep, and records it in the player's combat
+     * history when one is kept. Players whose display has not been switched to scaled health yet,
+     * while a toggle is in progress, are left to vanilla.
+     *
+     * @param event  damage event being handled
+     * @param player damaged player
+     */
+    private void handleDamage(EntityDamageEvent event, Player player) {
+        HealthSlot slot = realHealthStore.slot(player);
+        if (!slot.isScaled()) {
+            return;
+        }
+
+        double maxHealth = HealthUtil.getMaxHealth(player, slot);
+        double realHealth = slot.getRealHealth();
+        if (regenBatcher != null) {
+            realHealth = Math.min(maxHealth, realHealth + slot.takePendingRegen());
+        }
+        double damage = event.getFinalDamage();
+        double updated = Math.max(0.0D, realHealth - damage);
+        slot.setRealHealth(updated);
+        CombatHistory history = slot.getHistory();
+        if (updated <= 0.0D) {
+            if (history != null) {
+                history.record(System.currentTimeMillis(), event.getCause().ordinal(), damage, realHealth, 0.0D, 0.0D);
+            }
+            player.setHealth(0.0D);
+            event.setCancelled(true);
+            event.setDamage(0.0D);
+            return;
+        }
+
+        event.setDamage(0.0D);
+        if (displayUpdateBatcher != null) {
+            if (history != null) {
+                history.record(System.currentTimeMillis(), event.getCause().ordinal(), damage, realHealth, updated,
+                    Double.NaN);
+            }
+            displayUpdateBatcher.markDirty(player, slot);
+            return;
+        }
+        double display = scalingService.computeDisplayHealth(player, slot, updated, maxHealth);
+        if (history != null) {
+            history.record(System.currentTimeMillis(), event.getCause().ordinal(), damage, realHealth, updated, display);
+        }
+        player.setHealth(display);
+    }
+
+    /**
+     * Captures healing events to raise the stored real health and keep the player's visible health
+     * aligned with the selected scaling mode.
+     *
+     * @param event entity regain health event affecting a player
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onPlayerRegain(EntityRegainHealthEvent event) {
+        if (!(event.getEntity() instanceof Player player)) {
+            return;
+        }
+
+        long start = metrics.regen.start();
+        handleRegain(event, player);
+        metrics.regen.recordSince(start);
+    }
+
+    /**
+     * Applies a regain event to a player's real health and display, leaving players who are not
+     * scaled yet to vanilla. When regen batching is on, periodic regeneration is cancelled and
+     * buffered for the next sweep instead.
+     *
+     * @param event  regain event being handled
+     * @param player healed player
+     */
+    private void handleRegain(EntityRegainHealthEvent event, Player player) {
+        HealthSlot slot = realHealthStore.slot(player);
+        if (!slot.isScaled()) {
+            return;
+        }
+        if (regenBatcher != null && isPeriodic(event.getRegainReason())) {
+            regenBatcher.add(player, slot, event.getAmount());
+            event.setCancelled(true);
+            return;
+        }
+
+        double maxHealth = HealthUtil.getMaxHealth(player, slot);
+        double previous = slot.getRealHealth();
+        double healed = Math.min(maxHealth, previous + event.getAmount());
+        slot.setRealHealth(healed);
+        CombatHistory history = slot.getHistory();
+        int cause = history != null ? CombatHistory.regainCode(event.getRegainReason().ordinal()) : 0;
+        if (displayUpdateBatcher != null) {
+            if (history != null) {
+                history.record(System.currentTimeMillis(), cause, event.getAmount(), previous, healed, Double.NaN);
+            }
+            event.setAmount(0.0D);
+            displayUpdateBatcher.markDirty(player, slot);
+            return;
+        }
+        double display = scalingService.computeDisplayHealth(player, slot, healed, maxHealth);
+        if (history != null) {
+            history.record(System.currentTimeMillis(), cause, event.getAmount(), previous, healed, display);
+        }
+        event.setAmount(0.0D);
+        player.setHealth(display);
+    }
+
+    /**
+     * Tells whether a regain reason fires every few ticks, from saturation, natural regeneration or
+     * a regeneration effect. Only these are batched; one-off heals such as eating, instant health or
+     * other plugins' heals apply immediately.
+     *
+     * @param reason regain reason of the event
+     * @return {@code true} for periodic regeneration
+     */
+    private static boolean isPeriodic(EntityRegainHealthEvent.RegainReason reason) {
+        return reason == EntityRegainHealthEvent.RegainReason.SATIATED
+            || reason == EntityRegainHealthEvent.RegainReason.REGEN
+            || reason == EntityRegainHealthEvent.RegainReason.MAGIC_REGEN;
+    }
+}
@@ -2,28 +2,32 @@ package me.BaddCamden.damagescaling.listener;
 
 import me.BaddCamden.damagescaling.DamageScalingPlugin;
 import me.BaddCamden.damagescaling.HealthUtil;
-import me.BaddCamden.damagescaling.config.ScalingService;
+import me.BaddCamden.damagescaling.metrics.PluginMetrics;
+import me.BaddCamden.damagescaling.storage.HealthSlot;
 import me.BaddCamden.damagescaling.storage.RealHealthStore;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.entity.EntityDamageEvent;
-import org.bukkit.event.entity.EntityRegainHealthEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
 
 /**
- * Listens for player lifecycle and combat events to keep real and visual health values in sync.
+ * Listens for player lifecycle events to keep real and visual health values in sync. Damage and
+ * healing are handled by {@link CombatListener}, which is only registered while scaling is on.
+ * Handlers only touch the event's own player and shared state that is safe for concurrent use, so
+ * they may run on several region threads at once on Folia.
  */
 public class DamageScalingListener implements Listener {
 
     private final DamageScalingPlugin plugin;
     private final RealHealthStore realHealthStore;
-    private final ScalingService scalingService;
+    private final PluginMetrics metrics;
 
     /**
      * Builds a listener bound to the plugin's services so health changes can be coordinated.
@@ -33,19 +37,50 @@ public class DamageScalingListener implements Listener {
     public DamageScalingListener(DamageScalingPlugin plugin) {
         this.plugin = plugin;
         this.realHealthStore = plugin.getRealHealthStore();
-        this.scalingService = plugin.getScalingService();
+        this.metrics = plugin.getMetrics();
     }
 
     /**
-     * Loads a joining player's stored health and applies the appropriate visual value.
+     * Reads a logging-in player's stored health on the asynchronous login thread so the join does
+     * not touch the disk. Runs at monitor priority so logins denied by other plugins are skipped.
+     *
+     * @param event asynchronous pre-login event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            realHealthStore.discardPrefetch(event.getUniqueId());
+            return;
+        }
+        realHealthStore.prefetch(event.getUniqueId());
+    }
+
+    /**
+     * Drops the prefetched health of a player whose login was refused after pre-login, for example
+     * by the whitelist, a full server or another plugin, so a shared claim does not hold up their
+     * login on another server.
+     *
+     * @param event player login event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            realHealthStore.discardPrefetch(event.getPlayer().getUniqueId());
+        }
+    }
+
+    /**
+     * Installs a joining player's prefetched health and applies the appropriate visual value.
      *
      * @param event player join event
      */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerJoin(PlayerJoinEvent event) {
+        long start = metrics.join.start();
         Player player = event.getPlayer();
         realHealthStore.load(player);
         applyVisualHealth(plugin, player);
+        metrics.join.recordSince(start);
     }
 
     /**
@@ -55,122 +90,88 @@ public class DamageScalingListener implements Listener {
      */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
+        long start = metrics.quit.start();
         Player player = event.getPlayer();
         realHealthStore.save(player);
         realHealthStore.clear(player);
+        metrics.quit.recordSince(start);
     }
 
     /**
-     * Overrides incoming damage to adjust the stored real health and optionally display scaled
-     * values depending on whether the feature is enabled.
+     * Records a player's death by zeroing their stored real health before persistence, and dumps
+     * their combat history when configured to.
      *
-     * @param event entity damage event affecting a player
+     * @param event player death event
      */
-    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
-    public void onPlayerDamage(EntityDamageEvent event) {
-        if (!(event.getEntity() instanceof Player player)) {
-            return;
-        }
-
-        double maxHealth = HealthUtil.getMaxHealth(player);
-        if (!plugin.isScalingEnabled()) {
-            double predicted = Math.max(0.0D, HealthUtil.clamp(player.getHealth(), maxHealth) - event.getFinalDamage());
-            realHealthStore.setRealHealth(player, predicted);
-            return;
-        }
-
-        double realHealth = realHealthStore.getRealHealth(player);
-        double updated = Math.max(0.0D, realHealth - event.getFinalDamage());
-
-        realHealthStore.setRealHealth(player, updated);
-        if (updated <= 0.0D) {
-            player.setHealth(0.0D);
-            event.setCancelled(true);
-            event.setDamage(0.0D);
-            return;
-        }
-
-        event.setDamage(0.0D);
-        double display = scalingService.computeDisplayHealth(updated, maxHealth);
-        player.setHealth(display);
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerDeath(PlayerDeathEvent event) {
+        Player player = event.getEntity();
+        realHealthStore.dumpHistory(player);
+        realHealthStore.setRealHealth(player, 0.0D);
+        realHealthStore.save(player);
     }
 
     /**
-     * Captures healing events to raise the stored real health and keep the player's visible health
-     * aligned with the selected scaling mode.
+     * Re-resolves a player's scaling profile after they move to another world and applies the
+     * resulting display health.
      *
-     * @param event entity regain health event affecting a player
+     * @param event player changed world event
      */
-    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
-    public void onPlayerRegain(EntityRegainHealthEvent event) {
-        if (!(event.getEntity() instanceof Player player)) {
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        Player player = event.getPlayer();
+        HealthSlot slot = realHealthStore.findSlot(player);
+        if (slot == null) {
             return;
         }
-
-        double maxHealth = HealthUtil.getMaxHealth(player);
-        if (!plugin.isScalingEnabled()) {
-            double predicted = Math.min(maxHealth, HealthUtil.clamp(player.getHealth(), maxHealth) + event.getAmount());
-            realHealthStore.setRealHealth(player, predicted);
-            return;
+        slot.invalidateProfile();
+        if (slot.isScaled()) {
+            applyVisualHealth(plugin, player);
         }
-
-        double realHealth = realHealthStore.getRealHealth(player);
-        double healed = Math.min(maxHealth, realHealth + event.getAmount());
-
-        realHealthStore.setRealHealth(player, healed);
-        event.setAmount(0.0D);
-        double display = scalingService.computeDisplayHealth(healed, maxHealth);
-        player.setHealth(display);
-    }
-
-    /**
-     * Records a player's death by zeroing their stored real health before persistence.
-     *
-     * @param event player death event
-     */
-    @EventHandler(priority = EventPriority.MONITOR)
-    public void onPlayerDeath(PlayerDeathEvent event) {
-        Player player = event.getEntity();
-        realHealthStore.setRealHealth(player, 0.0D);
-        realHealthStore.save(player);
     }
 
     /**
-     * Restores a respawning player's real health to their maximum before reapplying visual scaling.
+     * Restores a respawning player's real health to their maximum before reapplying visual scaling,
+     * one tick later on the thread that owns the player.
      *
      * @param event player respawn event
      */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerRespawn(PlayerRespawnEvent event) {
         Player player = event.getPlayer();
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            double maxHealth = HealthUtil.getMaxHealth(player);
-            realHealthStore.setRealHealth(player, maxHealth);
+        plugin.getTaskScheduler().runForEntity(player, () -> {
+            long start = metrics.respawn.start();
+            HealthSlot slot = realHealthStore.slot(player);
+            slot.invalidateMaxHealth();
+            slot.setRealHealth(HealthUtil.getMaxHealth(player, slot));
             applyVisualHealth(plugin, player);
+            metrics.respawn.recordSince(start);
         });
     }
 
     /**
      * Synchronizes a player's displayed health hearts with their stored real health using the
-     * current scaling rules.
+     * current scaling rules, and records on the slot whether the display is now scaled.
      *
      * @param plugin plugin providing scaling state and storage access
      * @param player player whose hearts should be updated
      */
     public static void applyVisualHealth(DamageScalingPlugin plugin, Player player) {
-        double maxHealth = HealthUtil.getMaxHealth(player);
-        RealHealthStore store = plugin.getRealHealthStore();
-        double realHealth = store.getRealHealth(player);
+        HealthSlot slot = plugin.getRealHealthStore().slot(player);
+        double maxHealth = HealthUtil.getMaxHealth(player, slot);
+        double realHealth = slot.getRealHealth();
 
         if (!plugin.isScalingEnabled()) {
             double clamped = HealthUtil.clamp(realHealth, maxHealth);
             if (player.getHealth() != clamped) {
                 player.setHealth(clamped);
             }
+            slot.setScaled(false);
             return;
         }
 
-        double display = plugin.getScalingService().computeDisplayHealth(realHealth, maxHealth);
+        double display = plugin.getScalingService().computeDisplayHealth(player, slot, realHealth, maxHealth);
         player.setHealth(display);
+        slot.setScaled(true);
     }
 }
@@ -0,0 +1,65 @@
+package me.BaddCamden.damagescaling.listener;
+
+import me.BaddCamden.damagescaling.DamageScalingPlugin;
+import me.BaddCamden.damagescaling.HealthUtil;
+import me.BaddCamden.damagescaling.storage.HealthSlot;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+
+/**
+ * Defers display health updates so a player who takes several hits or regenerates several times
+ * within one tick receives a single {@code setHealth} call. Listeners update the real health and
+ * mark the player dirty; this task runs once per tick and pushes the final display value only when
+ * it differs from what the player currently sees.
+ */
+public class DisplayUpdateBatcher implements Runnable {
+
+    private final DamageScalingPlugin plugin;
+    private final ArrayDeque<Player> dirtyPlayers = new ArrayDeque<>();
+
+    /**
+     * Creates a batcher bound to the plugin's scaling state and storage.
+     *
+     * @param plugin owning plugin instance
+     */
+    public DisplayUpdateBatcher(DamageScalingPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Queues a display update for a player unless one is already pending this tick.
+     *
+     * @param player player whose display health changed
+     * @param slot   the player's health slot
+     */
+    public void markDirty(Player player, HealthSlot slot) {
+        if (slot.markDisplayDirty()) {
+            dirtyPlayers.add(player);
+        }
+    }
+
+    /**
+     * Applies the latest display health to every player marked dirty since the previous run.
+     */
+    @Override
+    public void run() {
+        Player player;
+        while ((player = dirtyPlayers.poll()) != null) {
+            HealthSlot slot = plugin.getRealHealthStore().findSlot(player);
+            if (slot == null) {
+                continue;
+            }
+            slot.clearDisplayDirty();
+            if (!slot.isScaled() || !player.isOnline() || player.isDead()) {
+                continue;
+            }
+
+            double display = plugin.getScalingService().computeDisplayHealth(player, slot, slot.getRealHealth(),
+                HealthUtil.getMaxHealth(player, slot));
+            if (player.getHealth() != display) {
+                player.setHealth(display);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package me.BaddCamden.damagescaling.listener;
+
+import me.BaddCamden.damagescaling.DamageScalingPlugin;
+import me.BaddCamden.damagescaling.HealthUtil;
+import me.BaddCamden.damagescaling.config.ScalingCurve;
+import me.BaddCamden.damagescaling.config.ScalingService;
+import me.BaddCamden.damagescaling.config.ScalingSettings;
+import me.BaddCamden.damagescaling.storage.EntityHealthTable;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntityRegainHealthEvent;
+import org.bukkit.event.entity.EntityRemoveEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+
+/**
+ * Applies real-versus-display health scaling to the non-player entity types listed under
+ * {@code entities.types}. Real health lives in an {@link EntityHealthTable} keyed by entity id; an
+ * entity is tracked from the first damage or healing it receives and evicted when it dies, is
+ * removed or is unloaded with its chunk. Unloading restores the real health first so the entity is
+ * saved unscaled.
+ */
+public class EntityScalingListener implements Listener {
+
+    private final DamageScalingPlugin plugin;
+    private final ScalingService scalingService;
+    private final EntityHealthTable entityHealthTable;
+
+    /**
+     * Builds a listener bound to the plugin's scaling service and entity health table.
+     *
+     * @param plugin owning plugin instance
+     */
+    public EntityScalingListener(DamageScalingPlugin plugin) {
+        this.plugin = plugin;
+        this.scalingService = plugin.getScalingService();
+        this.entityHealthTable = plugin.getEntityHealthTable();
+    }
+
+    /**
+     * Subtracts incoming damage from a scaled entity's real health and shows the scaled value.
+     * Lethal damage is left to vanilla so drops and kill credit are preserved.
+     *
+     * @param event entity damage event affecting a non-player entity
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onEntityDamage(EntityDamageEvent event) {
+        if (!(event.getEntity() instanceof LivingEntity entity) || entity instanceof Player) {
+            return;
+        }
+
+        ScalingSettings settings = scalingService.getSettings();
+        ScalingCurve curve = resolveCurve(settings, entity);
+        if (curve == null) {
+            return;
+        }
+
+        double maxHealth = HealthUtil.getMaxHealth(entity);
+        double realHealth = trackedOrCurrent(entity, maxHealth);
+        double updated = realHealth - event.getFinalDamage();
+        if (updated <= 0.0D) {
+            entityHealthTable.remove(entity.getEntityId());
+            // Lower the display health to the incoming damage so the vanilla hit is the killing blow.
+            entity.setHealth(Math.min(entity.getHealth(), event.getFinalDamage()));
+            return;
+        }
+
+        entityHealthTable.put(entity.getEntityId(), updated);
+        event.setDamage(0.0D);
+        entity.setHealth(scalingService.computeDisplayHealth(settings, curve, updated, maxHealth));
+    }
+
+    /**
+     * Adds healing to a scaled entity's real health and shows the scaled value.
+     *
+     * @param event entity regain health event affecting a non-player entity
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onEntityRegain(EntityRegainHealthEvent event) {
+        if (!(event.getEntity() instanceof LivingEntity entity) || entity instanceof Player) {
+            return;
+        }
+
+        ScalingSettings settings = scalingService.getSettings();
+        ScalingCurve curve = resolveCurve(settings, entity);
+        if (curve == null) {
+            return;
+        }
+
+        double maxHealth = HealthUtil.getMaxHealth(entity);
+        double healed = Math.min(maxHealth, trackedOrCurrent(entity, maxHealth) + event.getAmount());
+        entityHealthTable.put(entity.getEntityId(), healed);
+        event.setAmount(0.0D);
+        entity.setHealth(scalingService.computeDisplayHealth(settings, curve, healed, maxHealth));
+    }
+
+    /**
+     * Stops tracking an entity once it dies.
+     *
+     * @param event entity death event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityDeath(EntityDeathEvent event) {
+        entityHealthTable.remove(event.getEntity().getEntityId());
+    }
+
+    /**
+     * Stops tracking an entity removed from its world for any reason other than a chunk unload,
+     * which {@link #onEntitiesUnload(EntitiesUnloadEvent)} handles.
+     *
+     * @param event entity remove event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemove(EntityRemoveEvent event) {
+        if (event.getCause() != EntityRemoveEvent.Cause.UNLOAD) {
+            entityHealthTable.remove(event.getEntity().getEntityId());
+        }
+    }
+
+    /**
+     * Restores the real health of tracked entities in an unloading chunk and evicts them.
+     *
+     * @param event entities unload event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesUnload(EntitiesUnloadEvent event) {
+        for (Entity entity : event.getEntities()) {
+            restore(entityHealthTable, entity);
+        }
+    }
+
+    /**
+     * Resolves the curve for an entity, restoring and evicting it when its type is no longer
+     * scaled or scaling has been turned off.
+     *
+     * @param settings current scaling settings
+     * @param entity   entity being handled
+     * @return curve to apply, or {@code null} when the event should be left untouched
+     */
+    private ScalingCurve resolveCurve(ScalingSettings settings, LivingEntity entity) {
+        ScalingCurve curve = settings.getEntityCurve(entity.getType());
+        if (curve == null || !plugin.isScalingEnabled()) {
+            restore(entityHealthTable, entity);
+            return null;
+        }
+        return curve;
+    }
+
+    /**
+     * Returns the tracked real health of an entity, treating its current health as real when it is
+     * not tracked yet.
+     *
+     * @param entity    entity being handled
+     * @param maxHealth entity's maximum health
+     * @return real health before the event
+     */
+    private double trackedOrCurrent(LivingEntity entity, double maxHealth) {
+        double tracked = entityHealthTable.get(entity.getEntityId());
+        return Double.isNaN(tracked) ? HealthUtil.clamp(entity.getHealth(), maxHealth) : tracked;
+    }
+
+    /**
+     * Evicts an entity from the table and, when it was tracked, shows its real health again.
+     *
+     * @param table  table the entity may be tracked in
+     * @param entity entity to restore
+     */
+    public static void restore(EntityHealthTable table, Entity entity) {
+        double realHealth = table.remove(entity.getEntityId());
+        if (Double.isNaN(realHealth) || !(entity instanceof LivingEntity living) || living.isDead()) {
+            return;
+        }
+        living.setHealth(HealthUtil.clamp(realHealth, HealthUtil.getMaxHealth(living)));
+    }
+}
@@ -0,0 +1,151 @@
+package me.BaddCamden.damagescaling.listener;
+
+import me.BaddCamden.damagescaling.DamageScalingPlugin;
+import me.BaddCamden.damagescaling.HealthUtil;
+import me.BaddCamden.damagescaling.scheduler.TaskScheduler;
+import me.BaddCamden.damagescaling.storage.HealthSlot;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityPotionEffectEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+
+/**
+ * Keeps each player's cached maximum health in step with their attribute. Events that can change
+ * the attribute schedule a re-read on the following tick, once equipment and effect modifiers have
+ * been applied, and the task itself runs periodically as a consistency check for changes no event
+ * reports, such as plugins editing modifiers directly. When the value changed, scaled players get
+ * their display health reapplied.
+ */
+public class MaxHealthListener implements Listener, Runnable {
+
+    private final DamageScalingPlugin plugin;
+    private final TaskScheduler scheduler;
+
+    /**
+     * Builds a listener bound to the plugin's storage and scheduler.
+     *
+     * @param plugin owning plugin instance
+     */
+    public MaxHealthListener(DamageScalingPlugin plugin) {
+        this.plugin = plugin;
+        this.scheduler = plugin.getTaskScheduler();
+    }
+
+    /**
+     * Re-reads the maximum health after other plugins have adjusted a joining player.
+     *
+     * @param event player join event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        scheduleRefresh(event.getPlayer());
+    }
+
+    /**
+     * Re-reads the maximum health after a world change, which may swap attribute modifiers.
+     *
+     * @param event player changed world event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        scheduleRefresh(event.getPlayer());
+    }
+
+    /**
+     * Re-reads the maximum health after the held item, and so its modifiers, changes.
+     *
+     * @param event player item held event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemHeld(PlayerItemHeldEvent event) {
+        scheduleRefresh(event.getPlayer());
+    }
+
+    /**
+     * Re-reads the maximum health after items are swapped between hands.
+     *
+     * @param event player swap hand items event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHandItems(PlayerSwapHandItemsEvent event) {
+        scheduleRefresh(event.getPlayer());
+    }
+
+    /**
+     * Re-reads the maximum health after an inventory closes, covering armor equipped through it.
+     *
+     * @param event inventory close event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        if (event.getPlayer() instanceof Player player) {
+            scheduleRefresh(player);
+        }
+    }
+
+    /**
+     * Re-reads the maximum health after a potion effect such as health boost changes.
+     *
+     * @param event entity potion effect event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPotionEffect(EntityPotionEffectEvent event) {
+        if (event.getEntity() instanceof Player player) {
+            scheduleRefresh(player);
+        }
+    }
+
+    /**
+     * Checks every online player's cached maximum health against their attribute, on the thread
+     * owning each player.
+     */
+    @Override
+    public void run() {
+        boolean regionThreaded = scheduler.isRegionThreaded();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (regionThreaded) {
+                scheduler.runForEntity(player, () -> refresh(player));
+            } else {
+                refresh(player);
+            }
+        }
+    }
+
+    /**
+     * Re-reads a player's maximum health on the next tick.
+     *
+     * @param player player whose maximum health may have changed
+     */
+    private void scheduleRefresh(Player player) {
+        scheduler.runForEntity(player, () -> refresh(player));
+    }
+
+    /**
+     * Updates a player's cached maximum health from their attribute and reapplies their display
+     * health when the value changed while scaled.
+     *
+     * @param player player to check
+     */
+    private void refresh(Player player) {
+        HealthSlot slot = plugin.getRealHealthStore().findSlot(player);
+        if (slot == null) {
+            return;
+        }
+        double cached = slot.getCachedMaxHealth();
+        double actual = HealthUtil.getMaxHealth(player);
+        if (cached == actual) {
+            return;
+        }
+        slot.cacheMaxHealth(actual);
+        if (!Double.isNaN(cached) && slot.isScaled() && !player.isDead()) {
+            DamageScalingListener.applyVisualHealth(plugin, player);
+        }
+    }
+}
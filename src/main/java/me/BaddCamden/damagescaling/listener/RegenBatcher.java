@@ -0,0 +1,83 @@
+package me.BaddCamden.damagescaling.listener;
+
+import me.BaddCamden.damagescaling.DamageScalingPlugin;
+import me.BaddCamden.damagescaling.HealthUtil;
+import me.BaddCamden.damagescaling.storage.CombatHistory;
+import me.BaddCamden.damagescaling.storage.HealthSlot;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityRegainHealthEvent;
+
+import java.util.ArrayDeque;
+
+/**
+ * Applies buffered regeneration in one sweep instead of on every regain event. The regain handler
+ * cancels the vanilla event and adds its amount to the player's slot; this task then runs every
+ * {@code regen.batch-interval-ticks} and, per queued player, raises the real health once, evaluates
+ * the curve once and sends at most one {@code setHealth}. Damage taken between sweeps first folds the
+ * buffered regeneration into the real health, so lethality is judged as if it had been applied
+ * immediately.
+ */
+public class RegenBatcher implements Runnable {
+
+    // A sweep merges several periodic reasons, so its history entry is filed under REGEN.
+    private static final int REGEN_CODE =
+        CombatHistory.regainCode(EntityRegainHealthEvent.RegainReason.REGEN.ordinal());
+
+    private final DamageScalingPlugin plugin;
+    private final ArrayDeque<Player> queuedPlayers = new ArrayDeque<>();
+
+    /**
+     * Creates a batcher bound to the plugin's scaling state and storage.
+     *
+     * @param plugin owning plugin instance
+     */
+    public RegenBatcher(DamageScalingPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Buffers regeneration for a player and queues them for the next sweep unless they already are.
+     *
+     * @param player healed player
+     * @param slot   the player's health slot
+     * @param amount health regained
+     */
+    public void add(Player player, HealthSlot slot, double amount) {
+        if (slot.addPendingRegen(amount)) {
+            queuedPlayers.add(player);
+        }
+    }
+
+    /**
+     * Applies the regeneration buffered for every queued player since the previous sweep.
+     * Regeneration buffered for players who have died, left, or are no longer scaled is dropped.
+     */
+    @Override
+    public void run() {
+        Player player;
+        while ((player = queuedPlayers.poll()) != null) {
+            HealthSlot slot = plugin.getRealHealthStore().findSlot(player);
+            if (slot == null) {
+                continue;
+            }
+            slot.clearRegenQueued();
+            double amount = slot.takePendingRegen();
+            if (amount <= 0.0D || !slot.isScaled() || !player.isOnline() || player.isDead()) {
+                continue;
+            }
+
+            double maxHealth = HealthUtil.getMaxHealth(player, slot);
+            double previous = slot.getRealHealth();
+            double healed = Math.min(maxHealth, previous + amount);
+            slot.setRealHealth(healed);
+            double display = plugin.getScalingService().computeDisplayHealth(player, slot, healed, maxHealth);
+            CombatHistory history = slot.getHistory();
+            if (history != null) {
+                history.record(System.currentTimeMillis(), REGEN_CODE, amount, previous, healed, display);
+            }
+            if (player.getHealth() != display) {
+                player.setHealth(display);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package me.BaddCamden.damagescaling.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram built on striped {@link LongAdder} counters, so recording from
+ * the server thread, the login threads and the storage writer never contends on a shared field.
+ */
+public final class LatencyHistogram {
+
+    /** Inclusive bucket upper bounds in nanoseconds; the final implicit bucket is unbounded. */
+    static final long[] BUCKET_BOUNDS_NANOS = {
+        1_000L, 2_000L, 5_000L, 10_000L, 25_000L, 50_000L, 100_000L, 250_000L, 500_000L,
+        1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 50_000_000L
+    };
+
+    private final boolean enabled;
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_NANOS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Creates a histogram that either records or ignores samples.
+     *
+     * @param enabled {@code false} to turn every recording call into a no-op
+     */
+    LatencyHistogram(boolean enabled) {
+        this.enabled = enabled;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Reads the clock when recording is enabled.
+     *
+     * @return start timestamp to pass to {@link #recordSince(long)}
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the time elapsed since a timestamp obtained from {@link #start()}.
+     *
+     * @param startNanos start timestamp
+     */
+    public void recordSince(long startNanos) {
+        if (enabled) {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Records a single duration.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (!enabled) {
+            return;
+        }
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_NANOS.length && nanos > BUCKET_BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        sumNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Returns the number of recorded samples.
+     *
+     * @return sample count
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the total recorded time.
+     *
+     * @return sum of all samples in nanoseconds
+     */
+    public long sumNanos() {
+        return sumNanos.sum();
+    }
+
+    /**
+     * Returns the longest recorded sample.
+     *
+     * @return maximum sample in nanoseconds
+     */
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns the number of samples in a single, non-cumulative bucket.
+     *
+     * @param bucket bucket index; {@code BUCKET_BOUNDS_NANOS.length} is the overflow bucket
+     * @return sample count of the bucket
+     */
+    long bucketCount(int bucket) {
+        return buckets[bucket].sum();
+    }
+
+    /**
+     * Estimates a percentile as the upper bound of the bucket containing it.
+     *
+     * @param percentile percentile between 0 and 1
+     * @return bucket upper bound in nanoseconds, the maximum sample for the overflow bucket, or 0
+     *     when nothing was recorded
+     */
+    public long percentileUpperBoundNanos(double percentile) {
+        long total = count();
+        if (total == 0L) {
+            return 0L;
+        }
+        long target = (long) Math.ceil(total * percentile);
+        long seen = 0L;
+        for (int i = 0; i < BUCKET_BOUNDS_NANOS.length; i++) {
+            seen += bucketCount(i);
+            if (seen >= target) {
+                return BUCKET_BOUNDS_NANOS[i];
+            }
+        }
+        return maxNanos();
+    }
+}
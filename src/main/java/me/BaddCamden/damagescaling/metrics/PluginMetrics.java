@@ -0,0 +1,127 @@
+package me.BaddCamden.damagescaling.metrics;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime cost counters for the plugin's event handlers and storage. Each handler and storage
+ * operation owns a {@link LatencyHistogram}; storage additionally counts bytes written. All
+ * counters are striped, so recording is cheap from any thread.
+ */
+public final class PluginMetrics {
+
+    private final boolean enabled;
+    private final long startedAtMillis = System.currentTimeMillis();
+
+    /** Time spent handling {@code EntityDamageEvent} for players. */
+    public final LatencyHistogram damage;
+    /** Time spent handling {@code EntityRegainHealthEvent} for players. */
+    public final LatencyHistogram regen;
+    /** Time spent handling {@code PlayerJoinEvent}. */
+    public final LatencyHistogram join;
+    /** Time spent handling {@code PlayerQuitEvent}. */
+    public final LatencyHistogram quit;
+    /** Time spent applying health after {@code PlayerRespawnEvent}. */
+    public final LatencyHistogram respawn;
+    /** Time spent reading a stored record, including file I/O. */
+    public final LatencyHistogram storageLoad;
+    /** Time spent writing a stored record, including file I/O. */
+    public final LatencyHistogram storageSave;
+
+    private final LongAdder bytesWritten = new LongAdder();
+    private final List<Named> handlers;
+    private final List<Named> storage;
+
+    /**
+     * Creates a metrics registry.
+     *
+     * @param enabled {@code false} to make every recording call a no-op
+     */
+    public PluginMetrics(boolean enabled) {
+        this.enabled = enabled;
+        this.damage = new LatencyHistogram(enabled);
+        this.regen = new LatencyHistogram(enabled);
+        this.join = new LatencyHistogram(enabled);
+        this.quit = new LatencyHistogram(enabled);
+        this.respawn = new LatencyHistogram(enabled);
+        this.storageLoad = new LatencyHistogram(enabled);
+        this.storageSave = new LatencyHistogram(enabled);
+        this.handlers = List.of(new Named("damage", damage), new Named("regen", regen), new Named("join", join),
+            new Named("quit", quit), new Named("respawn", respawn));
+        this.storage = List.of(new Named("load", storageLoad), new Named("save", storageSave));
+    }
+
+    /**
+     * Creates a registry that records nothing, for callers constructed without metrics.
+     *
+     * @return disabled metrics registry
+     */
+    public static PluginMetrics disabled() {
+        return new PluginMetrics(false);
+    }
+
+    /**
+     * Indicates whether samples are being recorded.
+     *
+     * @return {@code true} when metrics are enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the wall-clock time at which collection started.
+     *
+     * @return epoch milliseconds of registry creation
+     */
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    /**
+     * Adds to the count of bytes written by the storage backend.
+     *
+     * @param bytes number of bytes written
+     */
+    public void addBytesWritten(long bytes) {
+        if (enabled) {
+            bytesWritten.add(bytes);
+        }
+    }
+
+    /**
+     * Returns the total number of bytes written by the storage backend.
+     *
+     * @return bytes written since collection started
+     */
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    /**
+     * Returns the handler histograms in display order.
+     *
+     * @return immutable list of labelled handler histograms
+     */
+    public List<Named> getHandlers() {
+        return handlers;
+    }
+
+    /**
+     * Returns the storage histograms in display order.
+     *
+     * @return immutable list of labelled storage histograms
+     */
+    public List<Named> getStorage() {
+        return storage;
+    }
+
+    /**
+     * Histogram paired with the label it is reported under.
+     *
+     * @param label     metric label value
+     * @param histogram recorded samples
+     */
+    public record Named(String label, LatencyHistogram histogram) {
+    }
+}
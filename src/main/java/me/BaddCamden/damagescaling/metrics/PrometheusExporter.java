@@ -0,0 +1,120 @@
+package me.BaddCamden.damagescaling.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Periodically writes {@link PluginMetrics} to a file in the Prometheus text exposition format so
+ * node-exporter's textfile collector or any scraper reading files can pick them up. The file is
+ * replaced atomically, so readers never see a partial write.
+ */
+public class PrometheusExporter implements Runnable {
+
+    private final PluginMetrics metrics;
+    private final LongSupplier pendingWrites;
+    private final File target;
+    private final Logger logger;
+
+    /**
+     * Creates an exporter writing to the given file.
+     *
+     * @param metrics       metrics to export
+     * @param pendingWrites supplier of the storage writer's current queue depth
+     * @param target        destination file, usually {@code metrics.prom} in the data folder
+     * @param logger        logger for write failures
+     */
+    public PrometheusExporter(PluginMetrics metrics, LongSupplier pendingWrites, File target, Logger logger) {
+        this.metrics = metrics;
+        this.pendingWrites = pendingWrites;
+        this.target = target;
+        this.logger = logger;
+    }
+
+    /**
+     * Renders the metrics and replaces the target file.
+     */
+    @Override
+    public void run() {
+        File temporary = new File(target.getParentFile(), target.getName() + ".tmp");
+        try {
+            Files.writeString(temporary.toPath(), render(), StandardCharsets.UTF_8);
+            Files.move(temporary.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            logger.log(Level.WARNING, "Failed to export metrics to " + target.getAbsolutePath(), exception);
+        }
+    }
+
+    /**
+     * Renders every metric in the Prometheus text exposition format.
+     *
+     * @return exposition text
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder(4096);
+        histograms(out, "damagescaling_handler_seconds", "Time spent in DamageScaling event handlers.", "handler",
+            metrics.getHandlers());
+        histograms(out, "damagescaling_storage_seconds", "Time spent reading and writing stored real health.",
+            "operation", metrics.getStorage());
+        out.append("# HELP damagescaling_storage_written_bytes_total Bytes written by the storage backend.\n")
+            .append("# TYPE damagescaling_storage_written_bytes_total counter\n")
+            .append("damagescaling_storage_written_bytes_total ").append(metrics.getBytesWritten()).append('\n');
+        out.append("# HELP damagescaling_storage_pending_writes Saves queued for the background writer.\n")
+            .append("# TYPE damagescaling_storage_pending_writes gauge\n")
+            .append("damagescaling_storage_pending_writes ").append(pendingWrites.getAsLong()).append('\n');
+        out.append("# HELP damagescaling_start_time_seconds Time at which metric collection started.\n")
+            .append("# TYPE damagescaling_start_time_seconds gauge\n")
+            .append("damagescaling_start_time_seconds ").append(metrics.getStartedAtMillis() / 1000L).append('\n');
+        return out.toString();
+    }
+
+    /**
+     * Appends one Prometheus histogram family with a series per label value. Buckets are written
+     * cumulatively, ending with {@code +Inf}. {@code _count} is that cumulative bucket total, not
+     * {@link LatencyHistogram#count()}: the buckets are read one by one while handlers keep
+     * recording, so this keeps the count consistent with the {@code +Inf} bucket in the same scrape.
+     *
+     * @param out        builder receiving the exposition text
+     * @param name       metric family name, without suffixes
+     * @param help       text for the {@code # HELP} line
+     * @param labelName  name of the label distinguishing the series
+     * @param histograms labelled histograms to render
+     */
+    private static void histograms(StringBuilder out, String name, String help, String labelName,
+                                   List<PluginMetrics.Named> histograms) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" histogram\n");
+        for (PluginMetrics.Named named : histograms) {
+            LatencyHistogram histogram = named.histogram();
+            String label = labelName + "=\"" + named.label() + "\"";
+            long cumulative = 0L;
+            for (int i = 0; i < LatencyHistogram.BUCKET_BOUNDS_NANOS.length; i++) {
+                cumulative += histogram.bucketCount(i);
+                out.append(name).append("_bucket{").append(label).append(",le=\"")
+                    .append(seconds(LatencyHistogram.BUCKET_BOUNDS_NANOS[i])).append("\"} ").append(cumulative).append('\n');
+            }
+            cumulative += histogram.bucketCount(LatencyHistogram.BUCKET_BOUNDS_NANOS.length);
+            out.append(name).append("_bucket{").append(label).append(",le=\"+Inf\"} ").append(cumulative).append('\n');
+            out.append(name).append("_sum{").append(label).append("} ").append(seconds(histogram.sumNanos())).append('\n');
+            out.append(name).append("_count{").append(label).append("} ").append(cumulative).append('\n');
+        }
+    }
+
+    /**
+     * Formats a duration as seconds, the base unit Prometheus expects.
+     *
+     * @param nanos duration in nanoseconds
+     * @return seconds with nanosecond precision, formatted independently of the locale
+     */
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1_000_000_000.0D);
+    }
+}
@@ -0,0 +1,62 @@
+package me.BaddCamden.damagescaling.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * {@link TaskScheduler} backed by the classic Bukkit scheduler, where every synchronous task runs on
+ * the single main thread.
+ */
+final class BukkitTaskScheduler implements TaskScheduler {
+
+    private final Plugin plugin;
+
+    /**
+     * Creates a scheduler owned by the plugin.
+     *
+     * @param plugin plugin owning the scheduled tasks
+     */
+    BukkitTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean isRegionThreaded() {
+        return false;
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    @Override
+    public TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        BukkitTask scheduled = Bukkit.getScheduler().runTaskTimer(plugin, task, Math.max(1L, delayTicks), periodTicks);
+        return scheduled::cancel;
+    }
+
+    @Override
+    public void runForEntity(Entity entity, Runnable task, Runnable retired) {
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            if (entity.isValid()) {
+                task.run();
+            } else if (retired != null) {
+                retired.run();
+            }
+        });
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+    }
+
+    @Override
+    public TaskHandle runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        BukkitTask scheduled = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, task, delayTicks, periodTicks);
+        return scheduled::cancel;
+    }
+}
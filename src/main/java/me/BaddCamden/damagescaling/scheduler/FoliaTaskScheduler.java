@@ -0,0 +1,145 @@
+package me.BaddCamden.damagescaling.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link TaskScheduler} backed by Folia's global region, entity and async schedulers. The plugin
+ * compiles against the Spigot API, so the Folia methods are resolved reflectively once at startup
+ * and invoked through cached {@link Method} handles.
+ */
+final class FoliaTaskScheduler implements TaskScheduler {
+
+    private static final long MILLIS_PER_TICK = 50L;
+
+    private final Plugin plugin;
+    private final Object globalScheduler;
+    private final Object asyncScheduler;
+    private final Method globalRun;
+    private final Method globalRunAtFixedRate;
+    private final Method asyncRunNow;
+    private final Method asyncRunAtFixedRate;
+    private final Method entityGetScheduler;
+    private final Method entityRun;
+    private final Method taskCancel;
+
+    /**
+     * Resolves Folia's scheduler entry points.
+     *
+     * @param plugin plugin owning the scheduled tasks
+     * @throws ReflectiveOperationException when the server does not expose the expected methods
+     */
+    FoliaTaskScheduler(Plugin plugin) throws ReflectiveOperationException {
+        this.plugin = plugin;
+        Server server = Bukkit.getServer();
+        Method getGlobalRegionScheduler = Server.class.getMethod("getGlobalRegionScheduler");
+        Method getAsyncScheduler = Server.class.getMethod("getAsyncScheduler");
+        this.globalScheduler = getGlobalRegionScheduler.invoke(server);
+        this.asyncScheduler = getAsyncScheduler.invoke(server);
+
+        Class<?> globalType = getGlobalRegionScheduler.getReturnType();
+        this.globalRun = globalType.getMethod("run", Plugin.class, Consumer.class);
+        this.globalRunAtFixedRate = globalType.getMethod("runAtFixedRate", Plugin.class, Consumer.class,
+            long.class, long.class);
+
+        Class<?> asyncType = getAsyncScheduler.getReturnType();
+        this.asyncRunNow = asyncType.getMethod("runNow", Plugin.class, Consumer.class);
+        this.asyncRunAtFixedRate = asyncType.getMethod("runAtFixedRate", Plugin.class, Consumer.class,
+            long.class, long.class, TimeUnit.class);
+
+        this.entityGetScheduler = Entity.class.getMethod("getScheduler");
+        this.entityRun = entityGetScheduler.getReturnType().getMethod("run", Plugin.class, Consumer.class,
+            Runnable.class);
+        this.taskCancel = globalRun.getReturnType().getMethod("cancel");
+    }
+
+    @Override
+    public boolean isRegionThreaded() {
+        return true;
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        invoke(globalRun, globalScheduler, plugin, consumer(task));
+    }
+
+    @Override
+    public TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        return handle(invoke(globalRunAtFixedRate, globalScheduler, plugin, consumer(task),
+            Math.max(1L, delayTicks), Math.max(1L, periodTicks)));
+    }
+
+    @Override
+    public void runForEntity(Entity entity, Runnable task, Runnable retired) {
+        Object entityScheduler = invoke(entityGetScheduler, entity);
+        // Folia returns null without calling either callback when the entity is already removed.
+        if (invoke(entityRun, entityScheduler, plugin, consumer(task), retired) == null && retired != null) {
+            retired.run();
+        }
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        invoke(asyncRunNow, asyncScheduler, plugin, consumer(task));
+    }
+
+    @Override
+    public TaskHandle runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        return handle(invoke(asyncRunAtFixedRate, asyncScheduler, plugin, consumer(task),
+            Math.max(0L, delayTicks) * MILLIS_PER_TICK, Math.max(1L, periodTicks) * MILLIS_PER_TICK,
+            TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Adapts a runnable to the {@code Consumer<ScheduledTask>} Folia expects.
+     *
+     * @param task work to run
+     * @return consumer ignoring the scheduled task argument
+     */
+    private static Consumer<Object> consumer(Runnable task) {
+        return scheduledTask -> task.run();
+    }
+
+    /**
+     * Wraps a Folia {@code ScheduledTask} in a {@link TaskHandle}.
+     *
+     * @param scheduledTask task returned by a Folia scheduler, may be {@code null} when not scheduled
+     * @return handle cancelling the task
+     */
+    private TaskHandle handle(Object scheduledTask) {
+        if (scheduledTask == null) {
+            return () -> {
+            };
+        }
+        return () -> invoke(taskCancel, scheduledTask);
+    }
+
+    /**
+     * Invokes a resolved scheduler method, rethrowing failures unchecked.
+     *
+     * @param method    method to call
+     * @param target    receiver
+     * @param arguments call arguments
+     * @return method result
+     */
+    private static Object invoke(Method method, Object target, Object... arguments) {
+        try {
+            return method.invoke(target, arguments);
+        } catch (InvocationTargetException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Folia scheduler call " + method.getName() + " failed", cause);
+        } catch (IllegalAccessException exception) {
+            throw new IllegalStateException("Folia scheduler call " + method.getName() + " is not accessible", exception);
+        }
+    }
+}
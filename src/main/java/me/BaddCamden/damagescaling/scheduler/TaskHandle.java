@@ -0,0 +1,13 @@
+package me.BaddCamden.damagescaling.scheduler;
+
+/**
+ * Cancellable reference to a repeating task created by a {@link TaskScheduler}.
+ */
+@FunctionalInterface
+public interface TaskHandle {
+
+    /**
+     * Stops the task from running again. Calling this more than once has no further effect.
+     */
+    void cancel();
+}
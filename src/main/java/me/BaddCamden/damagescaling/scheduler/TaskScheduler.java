@@ -0,0 +1,75 @@
+package me.BaddCamden.damagescaling.scheduler;
+
+import org.bukkit.entity.Entity;
+
+/**
+ * Schedules the plugin's work on the thread that owns it. On a classic server every synchronous
+ * task runs on the main thread; on a region-threaded (Folia) server global work runs on the global
+ * region thread and per-entity work on the thread of the region currently owning the entity.
+ */
+public interface TaskScheduler {
+
+    /**
+     * Indicates whether the server runs regions on separate threads, in which case entities may
+     * only be touched from tasks scheduled through {@link #runForEntity(Entity, Runnable)}.
+     *
+     * @return {@code true} on Folia and other region-threaded servers
+     */
+    boolean isRegionThreaded();
+
+    /**
+     * Runs a task on the next tick of the main thread, or of the global region thread on Folia.
+     *
+     * @param task work to run
+     */
+    void runGlobal(Runnable task);
+
+    /**
+     * Runs a task repeatedly on the main thread, or on the global region thread on Folia.
+     *
+     * @param task        work to run
+     * @param delayTicks  ticks before the first run; values below one are treated as one
+     * @param periodTicks ticks between runs
+     * @return handle that cancels the timer
+     */
+    TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Runs a task on the next tick of the thread that owns the entity. The task is dropped when the
+     * entity is removed before it runs.
+     *
+     * @param entity entity the task operates on
+     * @param task   work to run
+     */
+    default void runForEntity(Entity entity, Runnable task) {
+        runForEntity(entity, task, null);
+    }
+
+    /**
+     * Runs a task on the next tick of the thread that owns the entity, or a fallback instead when
+     * the entity is removed before the task could run, so exactly one of the two runs.
+     *
+     * @param entity  entity the task operates on
+     * @param task    work to run
+     * @param retired work to run instead when the entity is removed, or {@code null} for none; may run
+     *                on any thread
+     */
+    void runForEntity(Entity entity, Runnable task, Runnable retired);
+
+    /**
+     * Runs a task on an asynchronous worker thread.
+     *
+     * @param task work to run
+     */
+    void runAsync(Runnable task);
+
+    /**
+     * Runs a task repeatedly on an asynchronous worker thread.
+     *
+     * @param task        work to run
+     * @param delayTicks  ticks before the first run
+     * @param periodTicks ticks between runs
+     * @return handle that cancels the timer
+     */
+    TaskHandle runAsyncTimer(Runnable task, long delayTicks, long periodTicks);
+}
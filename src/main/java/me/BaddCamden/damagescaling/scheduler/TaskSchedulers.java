@@ -0,0 +1,53 @@
+package me.BaddCamden.damagescaling.scheduler;
+
+import org.bukkit.plugin.Plugin;
+
+import java.util.logging.Level;
+
+/**
+ * Picks the {@link TaskScheduler} implementation matching the running server.
+ */
+public final class TaskSchedulers {
+
+    private static final String REGIONIZED_SERVER_CLASS = "io.papermc.paper.threadedregions.RegionizedServer";
+
+    /**
+     * Hidden constructor to prevent instantiation of this static factory.
+     */
+    private TaskSchedulers() {
+    }
+
+    /**
+     * Creates a scheduler for the plugin, using Folia's region schedulers when the server is
+     * region-threaded and the Bukkit scheduler otherwise.
+     *
+     * @param plugin plugin owning the scheduled tasks
+     * @return scheduler for the running server
+     */
+    public static TaskScheduler create(Plugin plugin) {
+        if (!isRegionThreaded()) {
+            return new BukkitTaskScheduler(plugin);
+        }
+        try {
+            return new FoliaTaskScheduler(plugin);
+        } catch (ReflectiveOperationException exception) {
+            plugin.getLogger().log(Level.SEVERE, "Region-threaded server detected but its schedulers could not be "
+                + "resolved; falling back to the Bukkit scheduler", exception);
+            return new BukkitTaskScheduler(plugin);
+        }
+    }
+
+    /**
+     * Detects a Folia-style region-threaded server by the presence of its regionized server class.
+     *
+     * @return {@code true} when regions tick on separate threads
+     */
+    private static boolean isRegionThreaded() {
+        try {
+            Class.forName(REGIONIZED_SERVER_CLASS);
+            return true;
+        } catch (ClassNotFoundException exception) {
+            return false;
+        }
+    }
+}
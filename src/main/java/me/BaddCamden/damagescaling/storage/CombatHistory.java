@@ -0,0 +1,204 @@
+package me.BaddCamden.damagescaling.storage;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Fixed-size ring buffer of a player's most recent damage and healing events, kept in parallel
+ * primitive arrays so recording an event allocates nothing. Once full, each new event overwrites the
+ * oldest one. A buffer of {@code capacity} events always occupies about
+ * {@value #ENTRY_BYTES} × {@code capacity} bytes of arrays.
+ *
+ * <p>Each event stores a cause code, the health change, the real health before and after, and the
+ * display health shown afterwards. Damage causes are stored as their
+ * {@link org.bukkit.event.entity.EntityDamageEvent.DamageCause} ordinal; healing is stored through
+ * {@link #regainCode(int)} as a negative code so both share one column. The display health is
+ * {@link Double#NaN} when the update was deferred to the end of the tick.
+ *
+ * <p>Like the rest of {@link HealthSlot}, a buffer is only written by the thread owning its player.
+ */
+public final class CombatHistory {
+
+    /**
+     * Bytes one event occupies, both in memory and in a dump.
+     */
+    public static final int ENTRY_BYTES = Long.BYTES + Integer.BYTES + 4 * Double.BYTES;
+
+    private static final int DUMP_MAGIC = 0x44534348;
+    private static final int DUMP_VERSION = 1;
+    private static final int DUMP_HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES + Integer.BYTES;
+
+    private final long[] timestamps;
+    private final int[] causes;
+    private final double[] amounts;
+    private final double[] before;
+    private final double[] after;
+    private final double[] display;
+    private int next;
+    private int size;
+
+    /**
+     * Allocates a buffer for a fixed number of events.
+     *
+     * @param capacity number of events retained, at least one
+     */
+    public CombatHistory(int capacity) {
+        int length = Math.max(1, capacity);
+        this.timestamps = new long[length];
+        this.causes = new int[length];
+        this.amounts = new double[length];
+        this.before = new double[length];
+        this.after = new double[length];
+        this.display = new double[length];
+    }
+
+    /**
+     * Encodes a regain reason ordinal as a cause code that cannot collide with a damage cause.
+     *
+     * @param reasonOrdinal {@link org.bukkit.event.entity.EntityRegainHealthEvent.RegainReason} ordinal
+     * @return negative cause code
+     */
+    public static int regainCode(int reasonOrdinal) {
+        return -1 - reasonOrdinal;
+    }
+
+    /**
+     * Appends an event, overwriting the oldest one once the buffer is full.
+     *
+     * @param timestamp     epoch milliseconds at which the event was handled
+     * @param cause         damage cause ordinal, or a {@link #regainCode(int)} for healing
+     * @param amount        damage dealt or health regained
+     * @param realBefore    real health before the event
+     * @param realAfter     real health after the event
+     * @param displayHealth display health shown afterwards, or {@link Double#NaN} when deferred
+     */
+    public void record(long timestamp, int cause, double amount, double realBefore, double realAfter,
+                       double displayHealth) {
+        int index = next;
+        timestamps[index] = timestamp;
+        causes[index] = cause;
+        amounts[index] = amount;
+        before[index] = realBefore;
+        after[index] = realAfter;
+        display[index] = displayHealth;
+        next = index + 1 == timestamps.length ? 0 : index + 1;
+        if (size < timestamps.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Returns the number of events currently held.
+     *
+     * @return event count, at most the capacity
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of events held.
+     *
+     * @return buffer capacity
+     */
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    /**
+     * Reads the time of an event.
+     *
+     * @param age zero for the newest event, up to {@link #size()} minus one for the oldest
+     * @return epoch milliseconds
+     */
+    public long timestamp(int age) {
+        return timestamps[index(age)];
+    }
+
+    /**
+     * Reads the cause code of an event.
+     *
+     * @param age zero for the newest event
+     * @return damage cause ordinal, or a negative {@link #regainCode(int)}
+     */
+    public int cause(int age) {
+        return causes[index(age)];
+    }
+
+    /**
+     * Reads the damage dealt or health regained by an event.
+     *
+     * @param age zero for the newest event
+     * @return health change amount
+     */
+    public double amount(int age) {
+        return amounts[index(age)];
+    }
+
+    /**
+     * Reads the real health before an event.
+     *
+     * @param age zero for the newest event
+     * @return real health before
+     */
+    public double realBefore(int age) {
+        return before[index(age)];
+    }
+
+    /**
+     * Reads the real health after an event.
+     *
+     * @param age zero for the newest event
+     * @return real health after
+     */
+    public double realAfter(int age) {
+        return after[index(age)];
+    }
+
+    /**
+     * Reads the display health shown after an event.
+     *
+     * @param age zero for the newest event
+     * @return display health, or {@link Double#NaN} when the update was deferred
+     */
+    public double displayHealth(int age) {
+        return display[index(age)];
+    }
+
+    /**
+     * Serializes the buffer, oldest event first, for a binary dump. Layout, big-endian: magic
+     * {@code DSCH}, version, the player's UUID as two longs, the event count, then per event the
+     * timestamp (long), cause code (int), amount, real health before, real health after and display
+     * health (doubles).
+     *
+     * @param uniqueId unique ID of the owning player
+     * @return dump bytes
+     */
+    public byte[] dump(UUID uniqueId) {
+        ByteBuffer buffer = ByteBuffer.allocate(DUMP_HEADER_BYTES + size * ENTRY_BYTES);
+        buffer.putInt(DUMP_MAGIC).putInt(DUMP_VERSION)
+            .putLong(uniqueId.getMostSignificantBits()).putLong(uniqueId.getLeastSignificantBits())
+            .putInt(size);
+        for (int age = size - 1; age >= 0; age--) {
+            int index = index(age);
+            buffer.putLong(timestamps[index]).putInt(causes[index]).putDouble(amounts[index])
+                .putDouble(before[index]).putDouble(after[index]).putDouble(display[index]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Maps an event age to its array index.
+     *
+     * @param age zero for the newest event
+     * @return array index
+     * @throws IndexOutOfBoundsException when no event of that age is held
+     */
+    private int index(int age) {
+        if (age < 0 || age >= size) {
+            throw new IndexOutOfBoundsException("No event of age " + age + " in a history of " + size);
+        }
+        int index = next - 1 - age;
+        return index < 0 ? index + timestamps.length : index;
+    }
+}
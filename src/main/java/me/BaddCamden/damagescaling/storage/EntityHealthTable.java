@@ -0,0 +1,225 @@
+package me.BaddCamden.damagescaling.storage;
+
+import java.util.Arrays;
+
+/**
+ * Compact map from entity id to real health for scaled non-player entities. Entries live in
+ * parallel primitive arrays using open addressing with linear probing, so a tracked mob costs 12
+ * bytes of table space instead of a boxed map entry. The table is split into independently locked
+ * stripes so damage handlers running on different region threads rarely contend.
+ */
+public final class EntityHealthTable {
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final int STRIPES = 16;
+    private static final int INITIAL_STRIPE_CAPACITY = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * Creates an empty table.
+     */
+    public EntityHealthTable() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Returns the real health tracked for an entity.
+     *
+     * @param entityId server-assigned entity id
+     * @return tracked real health, or {@link Double#NaN} when the entity is not tracked
+     */
+    public double get(int entityId) {
+        int hash = mix(entityId);
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        synchronized (stripe) {
+            return stripe.get(entityId, hash >>> 4);
+        }
+    }
+
+    /**
+     * Tracks or updates an entity's real health.
+     *
+     * @param entityId server-assigned entity id
+     * @param value    real health to record
+     */
+    public void put(int entityId, double value) {
+        if (entityId == EMPTY) {
+            throw new IllegalArgumentException("Entity id " + EMPTY + " is reserved");
+        }
+        int hash = mix(entityId);
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        synchronized (stripe) {
+            stripe.put(entityId, hash >>> 4, value);
+        }
+    }
+
+    /**
+     * Stops tracking an entity.
+     *
+     * @param entityId server-assigned entity id
+     * @return the real health that was tracked, or {@link Double#NaN} when the entity was not tracked
+     */
+    public double remove(int entityId) {
+        int hash = mix(entityId);
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        synchronized (stripe) {
+            return stripe.remove(entityId, hash >>> 4);
+        }
+    }
+
+    /**
+     * Counts the tracked entities.
+     *
+     * @return number of entries across all stripes
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Spreads sequential entity ids across stripes and buckets.
+     *
+     * @param entityId entity id to hash
+     * @return mixed hash
+     */
+    private static int mix(int entityId) {
+        int hash = entityId * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * One independently locked open-addressing table. Removal shifts following entries back
+     * instead of leaving tombstones, so lookups never scan past deleted slots.
+     */
+    private static final class Stripe {
+
+        private int[] keys = newKeys(INITIAL_STRIPE_CAPACITY);
+        private double[] values = new double[INITIAL_STRIPE_CAPACITY];
+        private int size;
+
+        /**
+         * Looks up a key.
+         *
+         * @param key  entity id
+         * @param hash bucket hash for the key
+         * @return stored value or {@link Double#NaN}
+         */
+        double get(int key, int hash) {
+            int mask = keys.length - 1;
+            for (int index = hash & mask; ; index = (index + 1) & mask) {
+                int current = keys[index];
+                if (current == key) {
+                    return values[index];
+                }
+                if (current == EMPTY) {
+                    return Double.NaN;
+                }
+            }
+        }
+
+        /**
+         * Inserts or replaces a key, growing once the stripe is half full.
+         *
+         * @param key   entity id
+         * @param hash  bucket hash for the key
+         * @param value value to store
+         */
+        void put(int key, int hash, double value) {
+            int mask = keys.length - 1;
+            for (int index = hash & mask; ; index = (index + 1) & mask) {
+                int current = keys[index];
+                if (current == key) {
+                    values[index] = value;
+                    return;
+                }
+                if (current == EMPTY) {
+                    keys[index] = key;
+                    values[index] = value;
+                    if (++size > keys.length >>> 1) {
+                        resize(keys.length << 1);
+                    }
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Removes a key and closes the gap it leaves in its probe sequence.
+         *
+         * @param key  entity id
+         * @param hash bucket hash for the key
+         * @return removed value or {@link Double#NaN}
+         */
+        double remove(int key, int hash) {
+            int mask = keys.length - 1;
+            int index = hash & mask;
+            while (keys[index] != key) {
+                if (keys[index] == EMPTY) {
+                    return Double.NaN;
+                }
+                index = (index + 1) & mask;
+            }
+
+            double removed = values[index];
+            int gap = index;
+            for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+                int home = (mix(keys[next]) >>> 4) & mask;
+                // Move the entry into the gap unless its home bucket lies cyclically in (gap, next].
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+            }
+            keys[gap] = EMPTY;
+            size--;
+            return removed;
+        }
+
+        /**
+         * Rehashes every entry into arrays of a new capacity.
+         *
+         * @param capacity new power-of-two capacity
+         */
+        private void resize(int capacity) {
+            int[] oldKeys = keys;
+            double[] oldValues = values;
+            keys = newKeys(capacity);
+            values = new double[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                int key = oldKeys[i];
+                if (key == EMPTY) {
+                    continue;
+                }
+                int index = (mix(key) >>> 4) & mask;
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+
+        /**
+         * Allocates a key array filled with the empty marker.
+         *
+         * @param capacity array length
+         * @return new key array
+         */
+        private static int[] newKeys(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+}
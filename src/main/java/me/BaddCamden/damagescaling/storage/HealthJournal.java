@@ -0,0 +1,201 @@
+package me.BaddCamden.damagescaling.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of real health snapshots that survives crashes between regular saves. Each
+ * record holds the player's UUID, the real health, the snapshot sequence number assigned by
+ * {@link RealHealthStore} and a CRC32 of those fields. Replay keeps the highest sequence per
+ * player, so records may be appended in any order, and stops at the first torn or corrupt record.
+ * Only the background writer thread touches an open journal.
+ */
+final class HealthJournal {
+
+    private static final int MAGIC = 0x44534a4c;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 36;
+    private static final int BUFFERED_RECORDS = 256;
+
+    private final Path path;
+    private final boolean fsync;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * BUFFERED_RECORDS);
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE - 4);
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+
+    /**
+     * Opens the journal file, creating it with a fresh header when absent.
+     *
+     * @param path  journal file location
+     * @param fsync whether {@link #flush()} forces appended data to the device
+     * @throws IOException when the file cannot be opened
+     */
+    HealthJournal(Path path, boolean fsync) throws IOException {
+        this.path = path;
+        this.fsync = fsync;
+        if (!Files.exists(path) || Files.size(path) < HEADER_SIZE) {
+            writeFile(path, Map.of());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    /**
+     * Reads every intact record and returns the newest snapshot per player. A journal with an
+     * unknown header is reported as empty.
+     *
+     * @return latest snapshot per player, keyed by UUID
+     * @throws IOException when the file cannot be read
+     */
+    Map<UUID, HealthSnapshot> replay() throws IOException {
+        Map<UUID, HealthSnapshot> latest = new HashMap<>();
+        ByteBuffer data = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE, channel.size()));
+        channel.read(data, 0L);
+        data.flip();
+        if (data.remaining() < HEADER_SIZE || data.getInt() != MAGIC || data.getInt() != VERSION) {
+            return latest;
+        }
+
+        while (data.remaining() >= RECORD_SIZE) {
+            crc.reset();
+            crc.update(data.slice(data.position(), RECORD_SIZE - 4));
+            UUID uniqueId = new UUID(data.getLong(), data.getLong());
+            double value = data.getDouble();
+            long sequence = data.getLong();
+            if ((int) crc.getValue() != data.getInt()) {
+                break;
+            }
+            HealthSnapshot current = latest.get(uniqueId);
+            if (current == null || current.sequence() < sequence) {
+                latest.put(uniqueId, new HealthSnapshot(value, sequence));
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Buffers a snapshot for appending, writing the buffer out when it fills.
+     *
+     * @param uniqueId unique ID of the player
+     * @param value    real health snapshot
+     * @param sequence snapshot sequence number
+     * @throws IOException when a full buffer cannot be written
+     */
+    void append(UUID uniqueId, double value, long sequence) throws IOException {
+        if (!buffer.hasRemaining()) {
+            writeBuffer();
+        }
+        record.clear();
+        record.putLong(uniqueId.getMostSignificantBits()).putLong(uniqueId.getLeastSignificantBits())
+            .putDouble(value).putLong(sequence);
+        record.flip();
+        crc.reset();
+        crc.update(record.duplicate());
+        buffer.put(record).putInt((int) crc.getValue());
+    }
+
+    /**
+     * Writes buffered records and, when configured, forces them to the storage device.
+     *
+     * @throws IOException when the data cannot be written
+     */
+    void flush() throws IOException {
+        writeBuffer();
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Returns the current journal size, which grows until the next checkpoint.
+     *
+     * @return file size in bytes
+     * @throws IOException when the size cannot be read
+     */
+    long size() throws IOException {
+        return channel.size() + buffer.position();
+    }
+
+    /**
+     * Checkpoints the journal by atomically replacing it with one record per live snapshot,
+     * discarding superseded and already persisted records.
+     *
+     * @param live snapshots not yet persisted by the storage backend
+     * @throws IOException when the compacted journal cannot be written
+     */
+    void checkpoint(Map<UUID, HealthSnapshot> live) throws IOException {
+        writeBuffer();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        writeFile(temporary, live);
+        channel.close();
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    /**
+     * Flushes and closes the journal file.
+     *
+     * @throws IOException when the final flush fails
+     */
+    void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes any buffered records to the end of the journal file.
+     *
+     * @throws IOException when the data cannot be written
+     */
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes a complete journal file containing the given snapshots and forces it to disk.
+     *
+     * @param target  file to write
+     * @param entries snapshots to record
+     * @throws IOException when the file cannot be written
+     */
+    private void writeFile(Path target, Map<UUID, HealthSnapshot> entries) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = ByteBuffer.allocate(HEADER_SIZE + entries.size() * RECORD_SIZE);
+            data.putInt(MAGIC).putInt(VERSION);
+            CRC32 checksum = new CRC32();
+            for (Map.Entry<UUID, HealthSnapshot> entry : entries.entrySet()) {
+                int start = data.position();
+                data.putLong(entry.getKey().getMostSignificantBits()).putLong(entry.getKey().getLeastSignificantBits())
+                    .putDouble(entry.getValue().value()).putLong(entry.getValue().sequence());
+                checksum.reset();
+                checksum.update(data.slice(start, RECORD_SIZE - 4));
+                data.putInt((int) checksum.getValue());
+            }
+            data.flip();
+            while (data.hasRemaining()) {
+                out.write(data);
+            }
+            out.force(true);
+        }
+    }
+}
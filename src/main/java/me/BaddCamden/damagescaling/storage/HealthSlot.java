@@ -0,0 +1,230 @@
+package me.BaddCamden.damagescaling.storage;
+
+import me.BaddCamden.damagescaling.config.ScalingCurve;
+import me.BaddCamden.damagescaling.config.ScalingSettings;
+
+import java.util.UUID;
+
+/**
+ * Mutable, primitive-backed health state for a single tracked player. Listeners resolve a slot
+ * once per event through {@link RealHealthStore#slot(org.bukkit.entity.Player)} and then read and
+ * update it directly, avoiding repeated map lookups and boxed values on the hot path.
+ *
+ * <p>A slot is only written by the thread that owns its player, which on Folia moves between region
+ * threads. Fields read from other threads (the journal timer, the bulk sync job) are volatile so
+ * those readers see the latest values.
+ */
+public final class HealthSlot {
+
+    private final UUID uniqueId;
+    private final CombatHistory history;
+    private volatile double realHealth;
+    private volatile boolean scaled;
+    private boolean displayDirty;
+    private double pendingRegen;
+    private boolean regenQueued;
+    private volatile boolean persistDirty;
+    private volatile double maxHealth = Double.NaN;
+    private volatile ScalingSettings profileSource;
+    private volatile ScalingCurve profileCurve;
+
+    /**
+     * Creates a slot seeded with an initial real health value.
+     *
+     * @param uniqueId   unique ID of the owning player
+     * @param realHealth initial real health, negative values are stored as zero
+     */
+    HealthSlot(UUID uniqueId, double realHealth) {
+        this(uniqueId, realHealth, 0);
+    }
+
+    /**
+     * Creates a slot seeded with an initial real health value and, when requested, a combat
+     * history of fixed size.
+     *
+     * @param uniqueId        unique ID of the owning player
+     * @param realHealth      initial real health, negative values are stored as zero
+     * @param historyCapacity number of events the combat history keeps, or zero for none
+     */
+    HealthSlot(UUID uniqueId, double realHealth, int historyCapacity) {
+        this.uniqueId = uniqueId;
+        this.realHealth = Math.max(0.0D, realHealth);
+        this.history = historyCapacity > 0 ? new CombatHistory(historyCapacity) : null;
+    }
+
+    /**
+     * Returns the unique ID of the player this slot belongs to.
+     *
+     * @return owning player's unique ID
+     */
+    public UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    /**
+     * Returns the player's recent damage and healing events.
+     *
+     * @return combat history, or {@code null} when {@code history.enabled} is off
+     */
+    public CombatHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Reads the tracked real health.
+     *
+     * @return current real health value
+     */
+    public double getRealHealth() {
+        return realHealth;
+    }
+
+    /**
+     * Updates the tracked real health while preventing negative values.
+     *
+     * @param value new real health value
+     */
+    public void setRealHealth(double value) {
+        this.realHealth = Math.max(0.0D, value);
+        this.persistDirty = true;
+    }
+
+    /**
+     * Indicates whether the player currently sees scaled display health. Listeners follow this
+     * flag rather than the global setting so a player is only treated as scaled once their display
+     * has actually been switched.
+     *
+     * @return {@code true} when the displayed health is scaled
+     */
+    public boolean isScaled() {
+        return scaled;
+    }
+
+    /**
+     * Records whether the player's displayed health is scaled.
+     *
+     * @param scaled {@code true} once scaled health has been applied
+     */
+    public void setScaled(boolean scaled) {
+        this.scaled = scaled;
+    }
+
+    /**
+     * Returns the cached maximum health of the player.
+     *
+     * @return cached maximum health, or {@link Double#NaN} when it must be read from the player
+     */
+    public double getCachedMaxHealth() {
+        return maxHealth;
+    }
+
+    /**
+     * Caches the player's maximum health.
+     *
+     * @param maxHealth maximum health read from the player's attribute
+     */
+    public void cacheMaxHealth(double maxHealth) {
+        this.maxHealth = maxHealth;
+    }
+
+    /**
+     * Drops the cached maximum health so the next read goes to the player's attribute.
+     */
+    public void invalidateMaxHealth() {
+        this.maxHealth = Double.NaN;
+    }
+
+    /**
+     * Returns the profile curve cached for the player, provided it was resolved against the given
+     * settings snapshot. A reload publishes a new snapshot and so invalidates every cached curve.
+     *
+     * @param settings current settings snapshot
+     * @return cached curve, or {@code null} when it must be resolved again
+     */
+    public ScalingCurve getCachedCurve(ScalingSettings settings) {
+        return profileSource == settings ? profileCurve : null;
+    }
+
+    /**
+     * Caches the profile curve resolved for the player.
+     *
+     * @param settings snapshot the curve was resolved against
+     * @param curve    resolved curve
+     */
+    public void cacheCurve(ScalingSettings settings, ScalingCurve curve) {
+        this.profileCurve = curve;
+        this.profileSource = settings;
+    }
+
+    /**
+     * Drops the cached profile curve so the next display update resolves it again, for example
+     * after a world change or a permission update.
+     */
+    public void invalidateProfile() {
+        this.profileSource = null;
+    }
+
+    /**
+     * Flags the slot as needing a display update at the end of the tick.
+     *
+     * @return {@code true} when the slot was clean and the caller should queue it
+     */
+    public boolean markDisplayDirty() {
+        if (displayDirty) {
+            return false;
+        }
+        displayDirty = true;
+        return true;
+    }
+
+    /**
+     * Clears the pending display update flag once the update has been applied or discarded.
+     */
+    public void clearDisplayDirty() {
+        displayDirty = false;
+    }
+
+    /**
+     * Adds buffered regeneration to be applied by the next regen sweep.
+     *
+     * @param amount health regained
+     * @return {@code true} when the slot was not queued for a sweep yet and the caller should queue it
+     */
+    public boolean addPendingRegen(double amount) {
+        pendingRegen += amount;
+        if (regenQueued) {
+            return false;
+        }
+        regenQueued = true;
+        return true;
+    }
+
+    /**
+     * Removes and returns the buffered regeneration, leaving the slot queued if it was.
+     *
+     * @return health regained since the last call, zero when nothing is buffered
+     */
+    public double takePendingRegen() {
+        double amount = pendingRegen;
+        pendingRegen = 0.0D;
+        return amount;
+    }
+
+    /**
+     * Marks the slot as no longer queued for a regen sweep, once the sweep has reached it.
+     */
+    public void clearRegenQueued() {
+        regenQueued = false;
+    }
+
+    /**
+     * Clears the flag recording that real health changed since the last journal snapshot.
+     *
+     * @return {@code true} when the slot changed and should be journaled
+     */
+    boolean clearPersistDirty() {
+        boolean dirty = persistDirty;
+        persistDirty = false;
+        return dirty;
+    }
+}
@@ -0,0 +1,12 @@
+package me.BaddCamden.damagescaling.storage;
+
+/**
+ * Real health value captured on the server thread together with a store-wide sequence number.
+ * Higher sequence numbers are newer, which lets the journal and the background writer order
+ * snapshots that reach them out of order.
+ *
+ * @param value    captured real health
+ * @param sequence snapshot sequence number
+ */
+record HealthSnapshot(double value, long sequence) {
+}
@@ -0,0 +1,70 @@
+package me.BaddCamden.damagescaling.storage;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Backend that durably records players' real health values on behalf of {@link RealHealthStore}.
+ * Implementations may be called from the background writer and the asynchronous login thread,
+ * so they must be safe for concurrent use. Backends that keep records on the player itself
+ * implement {@link PlayerHealthStorage} instead.
+ */
+interface HealthStorage {
+
+    /**
+     * Reads the stored real health for a player.
+     *
+     * @param uniqueId unique ID of the player
+     * @return stored real health, or {@link Double#NaN} when the player has no record
+     * @throws IOException when the underlying storage cannot be read
+     */
+    double read(UUID uniqueId) throws IOException;
+
+    /**
+     * Replaces the stored real health for a player.
+     *
+     * @param uniqueId unique ID of the player
+     * @param value    clamped real health to persist
+     * @return number of bytes written, for metrics
+     * @throws IOException when the underlying storage cannot be written
+     */
+    long write(UUID uniqueId, double value) throws IOException;
+
+    /**
+     * Replaces the stored real health for several players at once. The background writer hands
+     * every queued save to this method in one call, so backends with transactions can commit the
+     * whole batch together. The default writes each entry in turn and keeps going past failures.
+     *
+     * @param ids    unique IDs of the players
+     * @param values clamped real health values, parallel to {@code ids}
+     * @param count  number of valid entries
+     * @return number of bytes written, for metrics
+     * @throws IOException when any entry could not be written; later failures are suppressed
+     */
+    default long writeBatch(UUID[] ids, double[] values, int count) throws IOException {
+        long bytes = 0L;
+        IOException failure = null;
+        for (int i = 0; i < count; i++) {
+            try {
+                bytes += write(ids[i], values[i]);
+            } catch (IOException exception) {
+                if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return bytes;
+    }
+
+    /**
+     * Flushes outstanding data and releases any resources held by the backend.
+     *
+     * @throws IOException when the final flush fails
+     */
+    void close() throws IOException;
+}
@@ -0,0 +1,141 @@
+package me.BaddCamden.damagescaling.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stores every player's real health in a single memory-mapped file of fixed-size records. A
+ * UUID-to-slot index is rebuilt when the file is opened, so reads and writes are plain memory
+ * accesses with no parsing and no per-player file creation.
+ *
+ * <p>Layout: a {@value #HEADER_SIZE}-byte header ({@code magic}, {@code version},
+ * {@code recordSize}, {@code recordCount}) followed by records of {@value #RECORD_SIZE} bytes
+ * holding the UUID's most and least significant bits, the real health as a double and the epoch
+ * millisecond timestamp of the last write.
+ */
+final class MappedHealthStorage implements HealthStorage {
+
+    private static final int MAGIC = 0x44535248;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 32;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int COUNT_OFFSET = 12;
+    private static final int HEALTH_OFFSET = 16;
+    private static final int TIMESTAMP_OFFSET = 24;
+
+    private final FileChannel channel;
+    private final Map<UUID, Integer> index = new HashMap<>();
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int recordCount;
+
+    /**
+     * Opens or creates the database file and indexes its existing records.
+     *
+     * @param file database file to map
+     * @throws IOException when the file cannot be opened or has an unknown format
+     */
+    MappedHealthStorage(File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                map(INITIAL_CAPACITY);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, RECORD_SIZE);
+                buffer.putInt(COUNT_OFFSET, 0);
+            } else {
+                map(Math.max(INITIAL_CAPACITY, (int) ((channel.size() - HEADER_SIZE) / RECORD_SIZE)));
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != RECORD_SIZE) {
+                    throw new IOException("Unrecognized real health database format: " + file.getAbsolutePath());
+                }
+                recordCount = Math.min(buffer.getInt(COUNT_OFFSET), capacity);
+                for (int slot = 0; slot < recordCount; slot++) {
+                    int offset = recordOffset(slot);
+                    index.put(new UUID(buffer.getLong(offset), buffer.getLong(offset + 8)), slot);
+                }
+            }
+        } catch (IOException exception) {
+            channel.close();
+            throw exception;
+        }
+    }
+
+    @Override
+    public synchronized double read(UUID uniqueId) {
+        Integer slot = index.get(uniqueId);
+        if (slot == null) {
+            return Double.NaN;
+        }
+        return buffer.getDouble(recordOffset(slot) + HEALTH_OFFSET);
+    }
+
+    @Override
+    public synchronized long write(UUID uniqueId, double value) throws IOException {
+        Integer existing = index.get(uniqueId);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+        } else {
+            if (recordCount == capacity) {
+                map(capacity * 2);
+            }
+            slot = recordCount;
+            int offset = recordOffset(slot);
+            buffer.putLong(offset, uniqueId.getMostSignificantBits());
+            buffer.putLong(offset + 8, uniqueId.getLeastSignificantBits());
+            index.put(uniqueId, slot);
+        }
+
+        int offset = recordOffset(slot);
+        buffer.putDouble(offset + HEALTH_OFFSET, value);
+        buffer.putLong(offset + TIMESTAMP_OFFSET, System.currentTimeMillis());
+        if (existing == null) {
+            recordCount++;
+            buffer.putInt(COUNT_OFFSET, recordCount);
+        }
+        return RECORD_SIZE;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            buffer.force();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Maps the file with room for the given number of records, growing the file when needed.
+     *
+     * @param recordCapacity number of records the mapping must hold
+     * @throws IOException when the region cannot be mapped
+     */
+    private void map(int recordCapacity) throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0L, HEADER_SIZE + (long) recordCapacity * RECORD_SIZE);
+        capacity = recordCapacity;
+    }
+
+    /**
+     * Computes the byte offset of a record slot within the mapping.
+     *
+     * @param slot zero-based record slot
+     * @return absolute offset of the slot's first byte
+     */
+    private static int recordOffset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,54 @@
+package me.BaddCamden.damagescaling.storage;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Stores real health as a {@code double} in each player's {@link org.bukkit.persistence.PersistentDataContainer}.
+ * The value is written to disk by the server together with the vanilla player data, so this backend
+ * does no I/O of its own and the stored real health always matches the saved vanilla health.
+ * Offline players cannot be reached, so the UUID-based methods report no record and reject writes.
+ */
+final class PersistentDataHealthStorage implements PlayerHealthStorage {
+
+    private final NamespacedKey key;
+
+    /**
+     * Creates a backend storing values under the plugin's {@code real_health} key.
+     *
+     * @param plugin owning plugin providing the key namespace
+     */
+    PersistentDataHealthStorage(Plugin plugin) {
+        this.key = new NamespacedKey(plugin, "real_health");
+    }
+
+    @Override
+    public double read(Player player) {
+        Double value = player.getPersistentDataContainer().get(key, PersistentDataType.DOUBLE);
+        return value == null ? Double.NaN : value;
+    }
+
+    @Override
+    public void write(Player player, double value) {
+        player.getPersistentDataContainer().set(key, PersistentDataType.DOUBLE, value);
+    }
+
+    @Override
+    public double read(UUID uniqueId) {
+        return Double.NaN;
+    }
+
+    @Override
+    public long write(UUID uniqueId, double value) throws IOException {
+        throw new IOException("Cannot store real health for " + uniqueId + " while the player is offline");
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,291 @@
+package me.BaddCamden.damagescaling.storage;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Moves the per-player {@code playerdata/<uuid>.yml} files into the active storage backend and
+ * deletes them, optionally dropping records at full health on the way. The directory is streamed
+ * in chunks; each chunk is read and parsed on its own virtual thread, and the parsed values are
+ * imported with one backend batch per chunk. At most {@code parallelism} chunks are in flight, so
+ * memory stays bounded however many files the directory holds.
+ *
+ * <p>Pruning only drops records holding exactly the vanilla maximum health of 20. The maximum of an
+ * offline player is unknown, so a record is only dropped when a player without a record, who starts
+ * from their in-game health, would end up with the same value on a server that keeps the vanilla
+ * maximum. Anything lower, or higher for a raised maximum, is always kept.
+ *
+ * <p>With the YAML backend active there is nowhere to move the files, so only pruning applies.
+ * Players who are online or have a save queued are left alone: their legacy file is older than
+ * what the store will write for them.
+ */
+public final class PlayerDataMigration {
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5L);
+    private static final double VANILLA_MAX_HEALTH = 20.0D;
+
+    private final RealHealthStore store;
+    private final Logger logger;
+    private final boolean prune;
+    private final int parallelism;
+    private final int batchSize;
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong pruned = new AtomicLong();
+    private final AtomicLong superseded = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private volatile boolean cancelled;
+
+    /**
+     * Prepares a migration into the store's active backend.
+     *
+     * @param store       store whose legacy directory and backend are migrated
+     * @param logger      logger receiving per-file problems
+     * @param prune       whether records at the vanilla maximum health are deleted instead of imported
+     * @param parallelism maximum number of chunks parsed at once
+     * @param batchSize   number of files per chunk and per backend batch
+     */
+    public PlayerDataMigration(RealHealthStore store, Logger logger, boolean prune, int parallelism, int batchSize) {
+        this.store = store;
+        this.logger = logger;
+        this.prune = prune;
+        this.parallelism = Math.max(1, parallelism);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Runs the migration on the calling thread, which should not be the server thread, and waits
+     * for every chunk to finish.
+     *
+     * @param progress receives a snapshot every few seconds while the migration runs
+     * @return final counts
+     * @throws IOException when the directory cannot be listed
+     */
+    public Progress run(Consumer<Progress> progress) throws IOException {
+        long start = System.nanoTime();
+        Path directory = store.getLegacyDirectory();
+        if (!Files.isDirectory(directory)) {
+            return snapshot(start, true);
+        }
+
+        Semaphore permits = new Semaphore(parallelism);
+        long lastReport = start;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+             DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.yml")) {
+            List<Path> chunk = new ArrayList<>(batchSize);
+            for (Path file : files) {
+                if (cancelled) {
+                    break;
+                }
+                chunk.add(file);
+                if (chunk.size() < batchSize) {
+                    continue;
+                }
+                submit(workers, permits, chunk);
+                chunk = new ArrayList<>(batchSize);
+                long now = System.nanoTime();
+                if (now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                    lastReport = now;
+                    progress.accept(snapshot(start, false));
+                }
+            }
+            if (!chunk.isEmpty() && !cancelled) {
+                submit(workers, permits, chunk);
+            }
+        } catch (InterruptedException exception) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+        }
+        return snapshot(start, true);
+    }
+
+    /**
+     * Stops the migration after the chunks already in flight.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Hands a chunk to a virtual thread once a parallelism permit is free.
+     *
+     * @param workers executor running the chunks
+     * @param permits bounds the number of chunks in flight
+     * @param chunk   files to migrate
+     * @throws InterruptedException when interrupted while waiting for a permit
+     */
+    private void submit(ExecutorService workers, Semaphore permits, List<Path> chunk) throws InterruptedException {
+        permits.acquire();
+        workers.execute(() -> {
+            try {
+                migrate(chunk);
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * Parses every file of a chunk and then applies the chunk to the backend in one locked step.
+     *
+     * @param chunk files to migrate
+     */
+    private void migrate(List<Path> chunk) {
+        UUID[] ids = new UUID[chunk.size()];
+        double[] values = new double[chunk.size()];
+        Path[] paths = new Path[chunk.size()];
+        int count = 0;
+        for (Path file : chunk) {
+            scanned.incrementAndGet();
+            String name = file.getFileName().toString();
+            try {
+                UUID uniqueId = UUID.fromString(name.substring(0, name.length() - ".yml".length()));
+                byte[] data = Files.readAllBytes(file);
+                bytesRead.addAndGet(data.length);
+                double value = YamlHealthStorage.parse(data);
+                if (Double.isNaN(value)) {
+                    throw new IOException("no real-health value");
+                }
+                ids[count] = uniqueId;
+                values[count] = value;
+                paths[count] = file;
+                count++;
+            } catch (IOException | IllegalArgumentException exception) {
+                failed.incrementAndGet();
+                logger.warning("Skipping " + name + " during migration: " + exception.getMessage());
+            }
+        }
+
+        int parsed = count;
+        if (!store.runExclusive(() -> apply(ids, values, paths, parsed))) {
+            skipped.addAndGet(parsed);
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Sorts a parsed chunk into imports, prunes and skips, writes the imports as one batch and
+     * deletes the files that are no longer needed. Runs while holding the store's write lock.
+     *
+     * @param ids    unique IDs parsed from the file names
+     * @param values real health values parsed from the files
+     * @param paths  source files, parallel to {@code ids}
+     * @param count  number of valid entries
+     */
+    private void apply(UUID[] ids, double[] values, Path[] paths, int count) {
+        HealthStorage backend = store.getBackend();
+        boolean movable = store.acceptsLegacyImport();
+        UUID[] importIds = new UUID[count];
+        double[] importValues = new double[count];
+        Path[] importPaths = new Path[count];
+        int imports = 0;
+        List<Path> obsolete = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (store.hasLiveValue(ids[i])) {
+                skipped.incrementAndGet();
+            } else if (prune && values[i] == VANILLA_MAX_HEALTH) {
+                obsolete.add(paths[i]);
+                pruned.incrementAndGet();
+            } else if (!movable) {
+                skipped.incrementAndGet();
+            } else if (!Double.isNaN(readBackend(backend, ids[i]))) {
+                obsolete.add(paths[i]);
+                superseded.incrementAndGet();
+            } else {
+                importIds[imports] = ids[i];
+                importValues[imports] = values[i];
+                importPaths[imports] = paths[i];
+                imports++;
+            }
+        }
+
+        if (imports > 0) {
+            try {
+                backend.writeBatch(importIds, importValues, imports);
+                imported.addAndGet(imports);
+                obsolete.addAll(List.of(importPaths).subList(0, imports));
+            } catch (IOException exception) {
+                failed.addAndGet(imports);
+                logger.log(Level.SEVERE, "Failed to import a batch of " + imports + " real health value(s)", exception);
+            }
+        }
+        for (Path file : obsolete) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException exception) {
+                logger.warning("Could not delete migrated file " + file + ": " + exception.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads the backend's record for a player, treating read failures as an existing record so the
+     * legacy file is neither imported over it nor deleted.
+     *
+     * @param backend  active backend
+     * @param uniqueId unique ID of the player
+     * @return stored value, {@link Double#NaN} when there is none, or {@code 0} when unreadable
+     */
+    private double readBackend(HealthStorage backend, UUID uniqueId) {
+        try {
+            return backend.read(uniqueId);
+        } catch (IOException exception) {
+            logger.warning("Could not check the backend record of " + uniqueId + ": " + exception.getMessage());
+            return 0.0D;
+        }
+    }
+
+    /**
+     * Captures the current counts.
+     *
+     * @param start    {@link System#nanoTime()} at which the run began
+     * @param finished whether the run has ended
+     * @return progress snapshot
+     */
+    private Progress snapshot(long start, boolean finished) {
+        return new Progress(scanned.get(), imported.get(), pruned.get(), superseded.get(), skipped.get(), failed.get(),
+            bytesRead.get(), System.nanoTime() - start, finished, cancelled);
+    }
+
+    /**
+     * Counts of a migration in progress or finished.
+     *
+     * @param scanned      files read so far
+     * @param imported     records written to the backend
+     * @param pruned       records at the vanilla maximum health deleted without importing
+     * @param superseded   files deleted because the backend already held a newer record
+     * @param skipped      files left in place, for players who are online or when nothing can be moved
+     * @param failed       files that could not be parsed or imported and were left in place
+     * @param bytesRead    total size of the files read
+     * @param elapsedNanos time since the migration started
+     * @param finished     whether the migration has ended
+     * @param cancelled    whether it ended early
+     */
+    public record Progress(long scanned, long imported, long pruned, long superseded, long skipped, long failed,
+                           long bytesRead, long elapsedNanos, boolean finished, boolean cancelled) {
+
+        /**
+         * Computes the average throughput so far.
+         *
+         * @return files read per second
+         */
+        public double filesPerSecond() {
+            return elapsedNanos == 0L ? 0.0D : scanned * 1_000_000_000.0D / elapsedNanos;
+        }
+    }
+}
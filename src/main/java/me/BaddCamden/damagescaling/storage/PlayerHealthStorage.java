@@ -0,0 +1,28 @@
+package me.BaddCamden.damagescaling.storage;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Backend that keeps real health on the online player rather than in its own files, so it can
+ * only be reached through a {@link Player} on the thread that owns that player. The UUID-based
+ * methods of {@link HealthStorage} see no records: {@link RealHealthStore} reads and writes these
+ * backends directly at join and save instead of going through the background writer.
+ */
+interface PlayerHealthStorage extends HealthStorage {
+
+    /**
+     * Reads the real health stored on a player.
+     *
+     * @param player online player
+     * @return stored real health, or {@link Double#NaN} when the player has no record
+     */
+    double read(Player player);
+
+    /**
+     * Stores real health on a player.
+     *
+     * @param player online player
+     * @param value  clamped real health to persist
+     */
+    void write(Player player, double value);
+}
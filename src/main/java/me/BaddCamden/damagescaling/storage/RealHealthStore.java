@@ -1,40 +1,138 @@
 package me.BaddCamden.damagescaling.storage;
 
 import me.BaddCamden.damagescaling.HealthUtil;
-import org.bukkit.configuration.file.YamlConfiguration;
+import me.BaddCamden.damagescaling.metrics.PluginMetrics;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 /**
  * Persists players' unscaled "real" health values and offers a cached view for quick retrieval.
+ * Saves are snapshotted on the calling thread and written behind by a single background writer
+ * that coalesces repeated saves for the same player, handing each drained batch to the backend in
+ * one call. Records are kept in one YAML file per player, a single memory-mapped database, an
+ * embedded SQLite database, or the players' own persistent data, selected by
+ * {@code storage.backend}. The persistent data backend bypasses the writer: saves are stored on the
+ * player immediately and reach the disk with the vanilla player data. The shared backend lets
+ * several servers use one directory, handing players over between them at login.
+ *
+ * <p>With {@code storage.journal.enabled}, real health of online players is also appended to a
+ * crash-safe journal in periodic batches, and every queued save is journaled before it reaches
+ * the backend. The journal is replayed into the backend on startup and compacted whenever it grows
+ * past {@code storage.journal.checkpoint-bytes}.
  */
 public class RealHealthStore {
 
-    private static final String REAL_HEALTH_KEY = "real-health";
+    private static final String MAPPED_DATABASE_FILE = "realhealth.db";
+    private static final String SQLITE_DATABASE_FILE = "realhealth.sqlite";
+    private static final String DEFAULT_SHARED_DIRECTORY = "shared";
+    private static final long DEFAULT_HANDOFF_TIMEOUT_MILLIS = 5000L;
+    private static final String JOURNAL_FILE = "realhealth.journal";
+    private static final String HISTORY_FOLDER = "history";
+    private static final int DEFAULT_HISTORY_SIZE = 64;
+    private static final long DEFAULT_CHECKPOINT_BYTES = 1024L * 1024L;
+    private static final long PREFETCH_EXPIRY_NANOS = TimeUnit.SECONDS.toNanos(60L);
 
     private final Plugin plugin;
-    private final Map<UUID, Double> cache = new ConcurrentHashMap<>();
-    private final File dataFolder;
+    private final PluginMetrics metrics;
+    private final Map<UUID, HealthSlot> slots = new ConcurrentHashMap<>();
+    private final Map<UUID, HealthSnapshot> pendingWrites = new ConcurrentHashMap<>();
+    private final Map<UUID, StagedHealth> prefetched = new ConcurrentHashMap<>();
+    private final Map<UUID, HealthSnapshot> journaled = new HashMap<>();
+    private final AtomicLong snapshotSequence = new AtomicLong();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Object writeLock = new Object();
+    private final ExecutorService writer;
+    private final YamlHealthStorage legacyStorage;
+    private final HealthStorage storage;
+    private final HealthJournal journal;
+    private final long journalCheckpointBytes;
+    private final int historySize;
+    private final boolean dumpHistoryOnDeath;
+    private volatile boolean closed;
 
     /**
-     * Prepares the storage helper and ensures the data directory exists for saving per-player YAML
-     * files.
+     * Prepares the storage helper without recording metrics.
      *
-     * @param plugin owning plugin used for logging and resolving the data folder
+     * @param plugin owning plugin used for logging, configuration and resolving the data folder
      */
     public RealHealthStore(Plugin plugin) {
+        this(plugin, PluginMetrics.disabled());
+    }
+
+    /**
+     * Prepares the storage helper and opens the backend configured under {@code storage.backend},
+     * falling back to per-player YAML files when the backend cannot be opened.
+     *
+     * @param plugin  owning plugin used for logging, configuration and resolving the data folder
+     * @param metrics registry receiving load and save timings and bytes written
+     */
+    public RealHealthStore(Plugin plugin, PluginMetrics metrics) {
         this.plugin = plugin;
-        this.dataFolder = new File(plugin.getDataFolder(), "playerdata");
-        if (!dataFolder.exists() && !dataFolder.mkdirs()) {
-            plugin.getLogger().warning("Could not create player data directory: " + dataFolder.getAbsolutePath());
+        this.metrics = metrics;
+        this.legacyStorage = new YamlHealthStorage(new File(plugin.getDataFolder(), "playerdata"));
+        this.storage = openStorage(plugin.getConfig().getString("storage.backend", "yaml"));
+        this.journal = openJournal();
+        this.journalCheckpointBytes = Math.max(HealthJournal.RECORD_SIZE,
+            plugin.getConfig().getLong("storage.journal.checkpoint-bytes", DEFAULT_CHECKPOINT_BYTES));
+        this.historySize = plugin.getConfig().getBoolean("history.enabled", false)
+            ? Math.max(1, plugin.getConfig().getInt("history.size", DEFAULT_HISTORY_SIZE)) : 0;
+        this.dumpHistoryOnDeath = historySize > 0 && plugin.getConfig().getBoolean("history.dump-on-death", false);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, plugin.getName() + "-RealHealthWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Resolves the mutable health slot for a player, seeding it from the live player health when
+     * the player is not tracked yet. Callers on the hot path should resolve the slot once and then
+     * work with it directly.
+     *
+     * @param player player whose slot should be returned
+     * @return the player's health slot
+     */
+    public HealthSlot slot(Player player) {
+        HealthSlot slot = slots.get(player.getUniqueId());
+        if (slot != null) {
+            return slot;
         }
+        return slots.computeIfAbsent(player.getUniqueId(),
+            uniqueId -> new HealthSlot(uniqueId, HealthUtil.clamp(player.getHealth(), HealthUtil.getMaxHealth(player)),
+                historySize));
+    }
+
+    /**
+     * Returns the health slot for a player without creating one.
+     *
+     * @param player player whose slot should be returned
+     * @return the player's health slot, or {@code null} when the player is not tracked
+     */
+    public HealthSlot findSlot(Player player) {
+        return slots.get(player.getUniqueId());
     }
 
     /**
@@ -45,7 +143,7 @@ public class RealHealthStore {
      * @return tracked real health value, clamped to the player's maximum health
      */
     public double getRealHealth(Player player) {
-        return cache.computeIfAbsent(player.getUniqueId(), ignored -> HealthUtil.clamp(player.getHealth(), HealthUtil.getMaxHealth(player)));
+        return slot(player).getRealHealth();
     }
 
     /**
@@ -55,48 +153,408 @@ public class RealHealthStore {
      * @param value new real health value to store
      */
     public void setRealHealth(Player player, double value) {
-        cache.put(player.getUniqueId(), Math.max(0.0D, value));
+        HealthSlot slot = slots.get(player.getUniqueId());
+        if (slot == null) {
+            slot = slots.putIfAbsent(player.getUniqueId(), new HealthSlot(player.getUniqueId(), value, historySize));
+            if (slot == null) {
+                return;
+            }
+        }
+        slot.setRealHealth(value);
     }
 
     /**
-     * Loads a player's real health from disk if available, otherwise seeds the cache with their
-     * current in-game health.
+     * Loads a player's real health, preferring a value staged by {@link #prefetch(UUID)} and only
+     * reading from disk when nothing was prefetched. With the persistent data backend the value
+     * stored on the player wins, and the prefetched YAML record only seeds players who have none
+     * yet. Players without a stored record are seeded with their current in-game health.
      *
      * @param player player whose data should be loaded
      */
     public void load(Player player) {
-        double fallback = HealthUtil.clamp(player.getHealth(), HealthUtil.getMaxHealth(player));
-        File file = playerFile(player.getUniqueId());
-        if (!file.exists()) {
-            setRealHealth(player, fallback);
-            return;
+        StagedHealth staged = prefetched.remove(player.getUniqueId());
+        if (staged != null && !staged.complete()) {
+            staged = null;
+        }
+        double stored = Double.NaN;
+        if (storage instanceof PlayerHealthStorage playerStorage) {
+            stored = readPlayerData(playerStorage, player);
+        }
+        if (Double.isNaN(stored)) {
+            stored = staged != null ? staged.value() : readStored(player.getUniqueId(), false);
+        }
+        if (Double.isNaN(stored)) {
+            stored = HealthUtil.clamp(player.getHealth(), HealthUtil.getMaxHealth(player));
         }
-
-        YamlConfiguration configuration = YamlConfiguration.loadConfiguration(file);
-        double stored = configuration.getDouble(REAL_HEALTH_KEY, fallback);
         setRealHealth(player, stored);
     }
 
     /**
-     * Writes a player's real health to disk, skipping work when no cache or file exists.
+     * Reads and parses a player's stored record ahead of their join so the join itself does no
+     * file I/O. Intended to be called from the asynchronous pre-login thread; a save racing with
+     * the read discards the staged value so the join falls back to a fresh read. With the shared
+     * backend this is also where the login waits for the previous server to hand the player over.
+     *
+     * @param uniqueId unique ID of the player who is logging in
+     */
+    public void prefetch(UUID uniqueId) {
+        long now = System.nanoTime();
+        expirePrefetches(now);
+        stage(uniqueId, now, true);
+    }
+
+    /**
+     * Prefetches the records of several players at once, reading and parsing each on its own
+     * virtual thread, so that loading every online player after an enable or reload costs about
+     * as long as the slowest read rather than the sum of all reads. The returned future completes
+     * once every value is staged; {@link #load(Player)} then installs them on the owning thread
+     * without touching the disk.
+     *
+     * @param uniqueIds unique IDs of the players to stage
+     * @return future completing when all reads have finished
+     */
+    public CompletableFuture<Void> preload(Collection<UUID> uniqueIds) {
+        if (uniqueIds.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long now = System.nanoTime();
+        expirePrefetches(now);
+
+        List<CompletableFuture<Void>> reads = new ArrayList<>(uniqueIds.size());
+        ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (UUID uniqueId : uniqueIds) {
+                reads.add(CompletableFuture.runAsync(() -> stage(uniqueId, now, false), readers));
+            }
+        } finally {
+            readers.shutdown();
+        }
+        return CompletableFuture.allOf(reads.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Drops staged values whose login never completed, releasing their shared claims.
+     *
+     * @param now current {@link System#nanoTime()}
+     */
+    private void expirePrefetches(long now) {
+        Iterator<Map.Entry<UUID, StagedHealth>> entries = prefetched.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<UUID, StagedHealth> entry = entries.next();
+            if (now - entry.getValue().stagedAt() > PREFETCH_EXPIRY_NANOS) {
+                entries.remove();
+                releaseShared(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Reads a player's stored record and stages it for their next {@link #load(Player)}. A
+     * placeholder is staged for the duration of the read; a save of the same player removes it,
+     * so a value read before that save is never installed and the load falls back to a fresh read.
+     * Saves of other players do not affect the staging.
+     *
+     * @param uniqueId       unique ID of the player
+     * @param now            {@link System#nanoTime()} recorded as the staging time
+     * @param waitForHandoff whether to wait for another server to release the player first
+     */
+    private void stage(UUID uniqueId, long now, boolean waitForHandoff) {
+        StagedHealth reading = new StagedHealth(Double.NaN, now, false);
+        prefetched.put(uniqueId, reading);
+        prefetched.replace(uniqueId, reading, new StagedHealth(readStored(uniqueId, waitForHandoff), now, true));
+    }
+
+    /**
+     * Drops any value staged for a player whose login did not complete and, with the shared
+     * backend, releases the claim the pre-login took so other servers need not wait for it.
+     *
+     * @param uniqueId unique ID of the player
+     */
+    public void discardPrefetch(UUID uniqueId) {
+        prefetched.remove(uniqueId);
+        releaseShared(uniqueId);
+    }
+
+    /**
+     * Reads the most recent stored value for a player, checking queued writes before the backend.
+     * When a non-YAML backend has no record, a leftover per-player YAML file is consulted so
+     * existing data carries over after switching backends. With the shared backend the player is
+     * claimed for this server first, even when a queued write supplies the value.
+     *
+     * @param uniqueId       unique ID of the player
+     * @param waitForHandoff whether the shared backend may block until another server releases the
+     *                       player; only allowed off the server thread
+     * @return stored real health, or {@link Double#NaN} when the player has no record
+     */
+    private double readStored(UUID uniqueId, boolean waitForHandoff) {
+        SharedHealthStorage shared = storage instanceof SharedHealthStorage sharedStorage ? sharedStorage : null;
+        HealthSnapshot pending = pendingWrites.get(uniqueId);
+        if (pending != null && shared == null) {
+            return pending.value();
+        }
+
+        long start = metrics.storageLoad.start();
+        try {
+            double stored;
+            if (shared != null && shared.holds(uniqueId)) {
+                // Claimed by an earlier login, or the player just left this server: read without re-claiming.
+                if (pending != null) {
+                    return pending.value();
+                }
+                stored = shared.read(uniqueId);
+            } else if (shared != null) {
+                stored = shared.acquire(uniqueId, waitForHandoff && pending == null);
+                if (pending != null) {
+                    return pending.value();
+                }
+            } else {
+                stored = storage.read(uniqueId);
+            }
+            if (Double.isNaN(stored) && storage != legacyStorage && legacyStorage.exists()) {
+                stored = legacyStorage.read(uniqueId);
+                if (Double.isNaN(stored)) {
+                    // A running migration may have moved the file into the backend after the first read.
+                    stored = storage.read(uniqueId);
+                }
+            }
+            return stored;
+        } catch (IOException exception) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to read real health for " + uniqueId, exception);
+            return Double.NaN;
+        } finally {
+            metrics.storageLoad.recordSince(start);
+        }
+    }
+
+    /**
+     * Reads the value a player-bound backend keeps on the player.
+     *
+     * @param playerStorage backend to read from
+     * @param player        joining player
+     * @return stored real health, or {@link Double#NaN} when the player has no record
+     */
+    private double readPlayerData(PlayerHealthStorage playerStorage, Player player) {
+        long start = metrics.storageLoad.start();
+        try {
+            return playerStorage.read(player);
+        } finally {
+            metrics.storageLoad.recordSince(start);
+        }
+    }
+
+    /**
+     * Snapshots a player's real health and queues it for the background writer, skipping players
+     * that have no cached value. Repeated saves before the writer catches up collapse into a single
+     * write of the latest value. The persistent data backend is written on the calling thread
+     * instead, which must own the player.
      *
      * @param player player whose data should be persisted
      */
     public void save(Player player) {
-        File file = playerFile(player.getUniqueId());
-        if (cache.isEmpty() && !file.exists()) {
+        HealthSlot slot = slots.get(player.getUniqueId());
+        if (slot == null) {
+            return;
+        }
+
+        // Unscaled players show their real health, which vanilla keeps up to date instead of the slot.
+        double realHealth = slot.isScaled() ? slot.getRealHealth() : player.getHealth();
+        double stored = HealthUtil.clamp(realHealth, HealthUtil.getMaxHealth(player, slot));
+        if (storage instanceof PlayerHealthStorage playerStorage) {
+            long start = metrics.storageSave.start();
+            playerStorage.write(player, stored);
+            metrics.storageSave.recordSince(start);
+            return;
+        }
+        pendingWrites.put(player.getUniqueId(), new HealthSnapshot(stored, snapshotSequence.incrementAndGet()));
+        prefetched.remove(player.getUniqueId());
+        if (closed) {
+            drainPending();
+            return;
+        }
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                writer.execute(() -> {
+                    drainScheduled.set(false);
+                    drainPending();
+                });
+            } catch (RejectedExecutionException exception) {
+                drainPending();
+            }
+        }
+    }
+
+    /**
+     * Indicates whether real health is kept in the players' persistent data, which only reaches
+     * the disk when the server saves the player and therefore needs {@link #flushPlayerData}.
+     *
+     * @return {@code true} when the persistent data backend is active
+     */
+    public boolean isPlayerDataBackend() {
+        return storage instanceof PlayerHealthStorage;
+    }
+
+    /**
+     * Copies a player's real health into their persistent data when it may have changed since the
+     * last copy, so the next vanilla autosave includes it. Must run on the thread that owns the
+     * player; does nothing unless the persistent data backend is active.
+     *
+     * @param player online player
+     */
+    public void flushPlayerData(Player player) {
+        HealthSlot slot = slots.get(player.getUniqueId());
+        if (!(storage instanceof PlayerHealthStorage) || slot == null) {
+            return;
+        }
+        // Unscaled players never mark their slot dirty, since vanilla tracks their health.
+        if (slot.clearPersistDirty() || !slot.isScaled()) {
+            save(player);
+        }
+    }
+
+    /**
+     * Returns the directory of per-player YAML files, which is the source of a
+     * {@link PlayerDataMigration}.
+     *
+     * @return legacy player data directory, which may not exist
+     */
+    Path getLegacyDirectory() {
+        return legacyStorage.getDataFolder().toPath();
+    }
+
+    /**
+     * Returns the active storage backend.
+     *
+     * @return backend selected by {@code storage.backend}
+     */
+    HealthStorage getBackend() {
+        return storage;
+    }
+
+    /**
+     * Indicates whether legacy YAML records can be moved into the active backend, which is only
+     * possible for backends other than YAML that can store offline players.
+     *
+     * @return {@code true} when a migration can import records
+     */
+    public boolean acceptsLegacyImport() {
+        return storage != legacyStorage && !(storage instanceof PlayerHealthStorage);
+    }
+
+    /**
+     * Indicates whether a player has a value newer than any stored record: they are tracked online
+     * or have a save waiting for the writer.
+     *
+     * @param uniqueId unique ID of the player
+     * @return {@code true} when the stored record may be outdated
+     */
+    boolean hasLiveValue(UUID uniqueId) {
+        return slots.containsKey(uniqueId) || pendingWrites.containsKey(uniqueId);
+    }
+
+    /**
+     * Runs an action while holding the write lock, so no queued save reaches the backend while the
+     * action inspects and changes stored records.
+     *
+     * @param action action to run
+     * @return {@code false} without running the action when the store is already closed
+     */
+    boolean runExclusive(Runnable action) {
+        synchronized (writeLock) {
+            if (closed) {
+                return false;
+            }
+            action.run();
+            return true;
+        }
+    }
+
+    /**
+     * Writes a dying player's combat history to {@code history/<uuid>-<epoch millis>.bin} when
+     * {@code history.dump-on-death} is on. The history is serialized on the calling thread, which
+     * must own the player, and written by the background writer.
+     *
+     * @param player player who died
+     */
+    public void dumpHistory(Player player) {
+        HealthSlot slot = slots.get(player.getUniqueId());
+        if (!dumpHistoryOnDeath || slot == null || slot.getHistory() == null || slot.getHistory().size() == 0) {
+            return;
+        }
+
+        byte[] dump = slot.getHistory().dump(player.getUniqueId());
+        Path file = new File(plugin.getDataFolder(), HISTORY_FOLDER).toPath()
+            .resolve(player.getUniqueId() + "-" + System.currentTimeMillis() + ".bin");
+        try {
+            writer.execute(() -> {
+                try {
+                    Files.createDirectories(file.getParent());
+                    Files.write(file, dump);
+                    metrics.addBytesWritten(dump.length);
+                } catch (IOException exception) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to write combat history " + file, exception);
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // The store is closing; a dump is diagnostic only.
+        }
+    }
+
+    /**
+     * Drops every tracked player's cached profile curve so it is resolved again on the next display
+     * update, picking up permission changes.
+     */
+    public void invalidateProfiles() {
+        for (HealthSlot slot : slots.values()) {
+            slot.invalidateProfile();
+        }
+    }
+
+    /**
+     * Indicates whether real health changes are being journaled for crash recovery.
+     *
+     * @return {@code true} when the journal is open
+     */
+    public boolean isJournalEnabled() {
+        return journal != null;
+    }
+
+    /**
+     * Snapshots every tracked player whose real health changed since the previous call and hands
+     * the batch to the background writer for appending to the journal. Intended to run
+     * periodically on the server thread; does nothing when the journal is disabled.
+     */
+    public void journalDirtySlots() {
+        if (journal == null || closed) {
             return;
         }
 
-        double max = HealthUtil.getMaxHealth(player);
-        double stored = HealthUtil.clamp(cache.getOrDefault(player.getUniqueId(), player.getHealth()), max);
+        UUID[] ids = new UUID[Math.max(16, slots.size())];
+        double[] values = new double[ids.length];
+        int count = 0;
+        for (HealthSlot slot : slots.values()) {
+            if (!slot.clearPersistDirty()) {
+                continue;
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                values = Arrays.copyOf(values, count * 2);
+            }
+            ids[count] = slot.getUniqueId();
+            values[count] = slot.getRealHealth();
+            count++;
+        }
+        if (count == 0) {
+            return;
+        }
 
-        YamlConfiguration configuration = new YamlConfiguration();
-        configuration.set(REAL_HEALTH_KEY, stored);
+        long sequence = snapshotSequence.incrementAndGet();
+        UUID[] batchIds = ids;
+        double[] batchValues = values;
+        int batchSize = count;
         try {
-            configuration.save(file);
-        } catch (IOException exception) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to save real health for " + player.getName(), exception);
+            writer.execute(() -> appendJournal(batchIds, batchValues, batchSize, sequence));
+        } catch (RejectedExecutionException ignored) {
+            // The store is closing; the shutdown save supersedes this batch.
         }
     }
 
@@ -112,21 +570,347 @@ public class RealHealthStore {
     }
 
     /**
-     * Removes a player's cached entry to free memory after logout.
+     * Removes a player's cached entry to free memory after logout. With the shared backend the
+     * background writer then releases the player to other servers, after the quit save queued
+     * before this call has been written.
      *
      * @param player player whose cache entry should be cleared
      */
     public void clear(Player player) {
-        cache.remove(player.getUniqueId());
+        slots.remove(player.getUniqueId());
+        releaseShared(player.getUniqueId());
     }
 
     /**
-     * Resolves the YAML file used for persisting an individual player's data.
+     * Queues the release of a player's shared claim on the background writer, which runs it after
+     * every save queued before. Does nothing unless the shared backend is active, and the release is
+     * skipped when the player is tracked or staged again by the time it runs.
      *
      * @param uniqueId unique ID of the player
-     * @return file handle pointing to the player's data file
      */
-    private File playerFile(UUID uniqueId) {
-        return new File(dataFolder, uniqueId.toString() + ".yml");
+    private void releaseShared(UUID uniqueId) {
+        if (!(storage instanceof SharedHealthStorage shared)) {
+            return;
+        }
+        try {
+            writer.execute(() -> {
+                if (slots.containsKey(uniqueId) || prefetched.containsKey(uniqueId)) {
+                    return;
+                }
+                try {
+                    shared.release(uniqueId);
+                } catch (IOException exception) {
+                    plugin.getLogger().log(Level.SEVERE, "Failed to release shared real health for " + uniqueId,
+                        exception);
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // The store is closing; closing the backend releases every remaining player.
+        }
+    }
+
+    /**
+     * Returns the number of snapshots waiting for the background writer.
+     *
+     * @return queued write count
+     */
+    public int getPendingWriteCount() {
+        return pendingWrites.size();
+    }
+
+    /**
+     * Stops the background writer, waiting up to the given timeout for queued saves to finish, and
+     * then writes any remaining snapshots on the calling thread so nothing is lost on shutdown.
+     *
+     * @param timeoutMillis maximum time to wait for the writer before draining synchronously
+     */
+    public void close(long timeoutMillis) {
+        closed = true;
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(Math.max(0L, timeoutMillis), TimeUnit.MILLISECONDS)) {
+                plugin.getLogger().warning("Real health writer did not finish in " + timeoutMillis
+                    + "ms; writing " + pendingWrites.size() + " remaining record(s) synchronously.");
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        drainPending();
+        try {
+            storage.close();
+        } catch (IOException exception) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to close real health storage", exception);
+            return;
+        }
+        if (journal != null) {
+            synchronized (writeLock) {
+                try {
+                    journal.checkpoint(journaled);
+                    journal.close();
+                } catch (IOException exception) {
+                    plugin.getLogger().log(Level.SEVERE, "Failed to checkpoint real health journal", exception);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes every queued snapshot to disk in one backend batch. With the journal enabled the batch
+     * is appended and flushed to the journal first, so a crash mid-batch is recovered on the next
+     * start. A failed batch counts as unwritten for every entry, leaving them to the journal. An entry
+     * is only removed once the value that was written is still the latest one, so a newer save
+     * queued mid-write is picked up by the next pass and readers never observe a gap between the
+     * queue and the file.
+     */
+    private void drainPending() {
+        synchronized (writeLock) {
+            if (pendingWrites.isEmpty()) {
+                return;
+            }
+            List<Map.Entry<UUID, HealthSnapshot>> batch = new ArrayList<>(pendingWrites.size());
+            for (Map.Entry<UUID, HealthSnapshot> entry : pendingWrites.entrySet()) {
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+
+            if (journal != null) {
+                try {
+                    for (Map.Entry<UUID, HealthSnapshot> entry : batch) {
+                        journal.append(entry.getKey(), entry.getValue().value(), entry.getValue().sequence());
+                    }
+                    journal.flush();
+                    metrics.addBytesWritten((long) batch.size() * HealthJournal.RECORD_SIZE);
+                } catch (IOException exception) {
+                    plugin.getLogger().log(Level.SEVERE, "Failed to journal queued real health saves", exception);
+                }
+            }
+
+            UUID[] ids = new UUID[batch.size()];
+            double[] values = new double[batch.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = batch.get(i).getKey();
+                values[i] = batch.get(i).getValue().value();
+            }
+            boolean written = writeBatch(storage, ids, values, ids.length);
+
+            for (Map.Entry<UUID, HealthSnapshot> entry : batch) {
+                UUID uniqueId = entry.getKey();
+                HealthSnapshot snapshot = entry.getValue();
+                pendingWrites.remove(uniqueId, snapshot);
+                if (journal != null) {
+                    HealthSnapshot journaledSnapshot = journaled.get(uniqueId);
+                    if (!written) {
+                        journaled.merge(uniqueId, snapshot, RealHealthStore::newer);
+                    } else if (journaledSnapshot != null && journaledSnapshot.sequence() <= snapshot.sequence()) {
+                        journaled.remove(uniqueId);
+                    }
+                }
+            }
+            checkpointJournalIfLarge();
+        }
+    }
+
+    /**
+     * Appends a batch of online players' real health to the journal on the writer thread.
+     *
+     * @param ids      unique IDs of the players in the batch
+     * @param values   real health values, parallel to {@code ids}
+     * @param count    number of valid entries
+     * @param sequence snapshot sequence shared by the batch
+     */
+    private void appendJournal(UUID[] ids, double[] values, int count, long sequence) {
+        synchronized (writeLock) {
+            try {
+                for (int i = 0; i < count; i++) {
+                    journal.append(ids[i], values[i], sequence);
+                    journaled.merge(ids[i], new HealthSnapshot(values[i], sequence), RealHealthStore::newer);
+                }
+                journal.flush();
+                metrics.addBytesWritten((long) count * HealthJournal.RECORD_SIZE);
+                checkpointJournalIfLarge();
+            } catch (IOException exception) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to append real health journal batch", exception);
+            }
+        }
+    }
+
+    /**
+     * Compacts the journal down to the snapshots the backend has not persisted yet once it grows
+     * past the configured size. Must be called while holding the write lock.
+     */
+    private void checkpointJournalIfLarge() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            if (journal.size() > journalCheckpointBytes) {
+                journal.checkpoint(journaled);
+            }
+        } catch (IOException exception) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to checkpoint real health journal", exception);
+        }
+    }
+
+    /**
+     * Hands a batch of real health snapshots to a storage backend.
+     *
+     * @param target backend receiving the batch
+     * @param ids    unique IDs of the players
+     * @param values clamped real health values, parallel to {@code ids}
+     * @param count  number of valid entries
+     * @return {@code true} when the backend accepted every write
+     */
+    private boolean writeBatch(HealthStorage target, UUID[] ids, double[] values, int count) {
+        long start = metrics.storageSave.start();
+        try {
+            metrics.addBytesWritten(target.writeBatch(ids, values, count));
+            return true;
+        } catch (IOException exception) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to save real health for " + count + " player(s)", exception);
+            return false;
+        } finally {
+            metrics.storageSave.recordSince(start);
+        }
+    }
+
+    /**
+     * Opens the journal when enabled and replays any records left behind by a previous run into
+     * the storage backend. A journal left over after the feature was disabled is still recovered
+     * and then removed. The persistent data backend never journals, since its values are saved
+     * with the player.
+     *
+     * @return open journal, or {@code null} when journaling is disabled or unavailable
+     */
+    private HealthJournal openJournal() {
+        boolean enabled = plugin.getConfig().getBoolean("storage.journal.enabled", false);
+        if (enabled && storage instanceof PlayerHealthStorage) {
+            plugin.getLogger().info("storage.journal is not used with the persistent-data backend; "
+                + "real health is saved together with the vanilla player data.");
+            enabled = false;
+        }
+        Path path = new File(plugin.getDataFolder(), JOURNAL_FILE).toPath();
+        if (!enabled && !Files.exists(path)) {
+            return null;
+        }
+
+        try {
+            Files.createDirectories(path.getParent());
+            HealthJournal opened = new HealthJournal(path, plugin.getConfig().getBoolean("storage.journal.fsync", true));
+            recoverJournal(opened);
+            if (enabled) {
+                return opened;
+            }
+            opened.close();
+            Files.deleteIfExists(path);
+        } catch (IOException exception) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to open real health journal " + path
+                + "; journaling is disabled", exception);
+        }
+        return null;
+    }
+
+    /**
+     * Writes every journaled snapshot into the storage backend in one batch and then truncates the
+     * journal, keeping the whole batch when the backend rejected it. Sequence numbering resumes above the
+     * highest recovered snapshot so retained records never shadow newer ones.
+     *
+     * @param opened journal to replay
+     * @throws IOException when the journal cannot be read or rewritten
+     */
+    private void recoverJournal(HealthJournal opened) throws IOException {
+        Map<UUID, HealthSnapshot> recovered = opened.replay();
+        Map<UUID, HealthSnapshot> failed = new HashMap<>();
+        UUID[] ids = new UUID[recovered.size()];
+        double[] values = new double[recovered.size()];
+        int count = 0;
+        for (Map.Entry<UUID, HealthSnapshot> entry : recovered.entrySet()) {
+            snapshotSequence.accumulateAndGet(entry.getValue().sequence(), Math::max);
+            ids[count] = entry.getKey();
+            values[count] = entry.getValue().value();
+            count++;
+        }
+        // Offline players cannot be reached through their persistent data, so it recovers into YAML.
+        HealthStorage target = storage instanceof PlayerHealthStorage ? legacyStorage : storage;
+        if (count > 0 && !writeBatch(target, ids, values, count)) {
+            failed.putAll(recovered);
+        }
+        // Rewriting also drops a torn tail so new records are appended after intact data.
+        opened.checkpoint(failed);
+        journaled.putAll(failed);
+        if (recovered.isEmpty()) {
+            return;
+        }
+        plugin.getLogger().info("Recovered " + (recovered.size() - failed.size())
+            + " real health value(s) from the journal.");
+    }
+
+    /**
+     * Picks the newer of two snapshots.
+     *
+     * @param first  one snapshot
+     * @param second another snapshot
+     * @return the snapshot with the higher sequence number
+     */
+    private static HealthSnapshot newer(HealthSnapshot first, HealthSnapshot second) {
+        return first.sequence() >= second.sequence() ? first : second;
+    }
+
+    /**
+     * Opens the configured storage backend, creating its files or directories as needed.
+     *
+     * @param backend backend name from configuration
+     * @return ready-to-use backend, never {@code null}
+     */
+    private HealthStorage openStorage(String backend) {
+        String name = backend == null ? "yaml" : backend.trim().toLowerCase(Locale.ROOT);
+        if (name.equals("mapped") || name.equals("sqlite")) {
+            boolean mapped = name.equals("mapped");
+            File file = new File(plugin.getDataFolder(), mapped ? MAPPED_DATABASE_FILE : SQLITE_DATABASE_FILE);
+            try {
+                if (!plugin.getDataFolder().exists() && !plugin.getDataFolder().mkdirs()) {
+                    throw new IOException("Could not create data folder " + plugin.getDataFolder().getAbsolutePath());
+                }
+                return mapped ? new MappedHealthStorage(file) : new SqliteHealthStorage(file);
+            } catch (IOException exception) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to open " + file.getAbsolutePath()
+                    + "; falling back to YAML storage", exception);
+            }
+        } else if (name.equals("persistent-data")) {
+            return new PersistentDataHealthStorage(plugin);
+        } else if (name.equals("shared")) {
+            Path directory = plugin.getDataFolder().toPath()
+                .resolve(plugin.getConfig().getString("storage.shared.directory", DEFAULT_SHARED_DIRECTORY));
+            String serverName = plugin.getConfig().getString("storage.shared.server-name", "");
+            if (serverName == null || serverName.isBlank()) {
+                serverName = plugin.getDataFolder().getAbsolutePath();
+            }
+            long handoffTimeout = plugin.getConfig().getLong("storage.shared.handoff-timeout-millis",
+                DEFAULT_HANDOFF_TIMEOUT_MILLIS);
+            try {
+                return new SharedHealthStorage(directory, serverName, handoffTimeout, plugin.getLogger());
+            } catch (IOException exception) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to open shared directory " + directory
+                    + "; falling back to YAML storage", exception);
+            }
+        } else if (!name.equals("yaml")) {
+            plugin.getLogger().warning("Unknown storage backend '" + backend + "'; using YAML storage");
+        }
+
+        File dataFolder = new File(plugin.getDataFolder(), "playerdata");
+        if (!dataFolder.exists() && !dataFolder.mkdirs()) {
+            plugin.getLogger().warning("Could not create player data directory: " + dataFolder.getAbsolutePath());
+        }
+        return legacyStorage;
+    }
+
+    /**
+     * Real health value read during pre-login, waiting to be installed when the player joins.
+     *
+     * @param value    stored real health, or {@link Double#NaN} when no record exists
+     * @param stagedAt {@link System#nanoTime()} at which the read started
+     * @param complete {@code false} while the read is still running
+     */
+    private record StagedHealth(double value, long stagedAt, boolean complete) {
     }
 }
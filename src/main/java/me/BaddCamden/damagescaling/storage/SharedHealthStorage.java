@@ -0,0 +1,310 @@
+package me.BaddCamden.damagescaling.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Stores real health in a directory shared by several servers, one small record file per player.
+ * Every record carries a version that increases with each write and the ID of the server that
+ * currently owns the player. All access happens under an exclusive file lock, so each write is a
+ * compare-and-set against the version this server last saw.
+ *
+ * <p>A server claims a player in {@link #acquire} when they log in, waiting on the login thread for
+ * the previous server to flush and {@link #release} the record after the player quit there. A write
+ * whose expected version no longer matches is discarded, because another server has stored a newer
+ * value since. A server that never releases, for example after a crash, is taken over once the
+ * handoff timeout expires.
+ *
+ * <p>Layout, big-endian: magic, format version, record version, real health, owning server ID
+ * ({@code 0} when released) and the epoch millisecond timestamp of the last write.
+ */
+final class SharedHealthStorage implements HealthStorage {
+
+    private static final int MAGIC = 0x44535348;
+    private static final int FORMAT_VERSION = 1;
+    private static final int RECORD_SIZE = 40;
+    private static final long POLL_MILLIS = 20L;
+    private static final Object[] MONITORS = new Object[64];
+
+    static {
+        for (int i = 0; i < MONITORS.length; i++) {
+            MONITORS[i] = new Object();
+        }
+    }
+
+    private final Path directory;
+    private final long serverId;
+    private final long handoffTimeoutNanos;
+    private final Logger logger;
+    private final Map<UUID, Long> knownVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Opens the shared directory, creating it when needed.
+     *
+     * @param directory            directory shared by every server of the network
+     * @param serverName           name unique to this server, identifying it as a record owner
+     * @param handoffTimeoutMillis how long a login waits for another server to release the player
+     * @param logger               logger receiving conflicts and takeovers
+     * @throws IOException when the directory cannot be created
+     */
+    SharedHealthStorage(Path directory, String serverName, long handoffTimeoutMillis, Logger logger)
+        throws IOException {
+        this.directory = Files.createDirectories(directory);
+        long id = UUID.nameUUIDFromBytes(serverName.getBytes(StandardCharsets.UTF_8)).getMostSignificantBits();
+        this.serverId = id == 0L ? 1L : id;
+        this.handoffTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, handoffTimeoutMillis));
+        this.logger = logger;
+    }
+
+    /**
+     * Reads a player's record without claiming it.
+     *
+     * @param uniqueId unique ID of the player
+     * @return stored real health, or {@link Double#NaN} when the player has no record
+     * @throws IOException when the record cannot be read
+     */
+    @Override
+    public double read(UUID uniqueId) throws IOException {
+        Record record = locked(uniqueId, false, SharedHealthStorage::readRecord);
+        return record == null ? Double.NaN : record.value();
+    }
+
+    /**
+     * Claims a player for this server and reads their record. While another server owns the player
+     * this polls until it releases them or the wait runs out, after which the record is taken over.
+     * Must not be called on the server thread unless {@code wait} is {@code false}.
+     *
+     * @param uniqueId unique ID of the player
+     * @param wait     whether to wait up to the handoff timeout for another server to release
+     * @return stored real health, or {@link Double#NaN} when the player has no record
+     * @throws IOException when the record cannot be read or claimed
+     */
+    double acquire(UUID uniqueId, boolean wait) throws IOException {
+        long deadline = System.nanoTime() + (wait ? handoffTimeoutNanos : 0L);
+        while (true) {
+            Record claimed = locked(uniqueId, false, channel -> {
+                Record current = readRecord(channel);
+                if (current == null) {
+                    knownVersions.put(uniqueId, 0L);
+                    return new Record(0L, Double.NaN, serverId, 0L);
+                }
+                if (current.owner() != 0L && current.owner() != serverId) {
+                    if (System.nanoTime() < deadline) {
+                        return null;
+                    }
+                    logger.warning("Taking over real health of " + uniqueId + " from server "
+                        + Long.toHexString(current.owner()) + ", which did not release it in time");
+                }
+                Record next = new Record(current.version() + 1L, current.value(), serverId, System.currentTimeMillis());
+                writeRecord(channel, next);
+                knownVersions.put(uniqueId, next.version());
+                return next;
+            });
+            if (claimed != null) {
+                return claimed.value();
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for another server to release " + uniqueId, exception);
+            }
+        }
+    }
+
+    /**
+     * Writes a player's real health if the record still has the version this server last saw. A
+     * player this server never claimed is only written when they have no record yet or the record
+     * is still owned by this server, as after a restart. Conflicting writes are logged and dropped.
+     *
+     * @param uniqueId unique ID of the player
+     * @param value    clamped real health to persist
+     * @return number of bytes written, zero when the write was discarded
+     * @throws IOException when the record cannot be read or written
+     */
+    @Override
+    public long write(UUID uniqueId, double value) throws IOException {
+        return locked(uniqueId, true, channel -> {
+            Record current = readRecord(channel);
+            Long known = knownVersions.get(uniqueId);
+            long currentVersion = current == null ? 0L : current.version();
+            boolean matches = known != null ? currentVersion == known : current == null || current.owner() == serverId;
+            if (!matches) {
+                logger.warning("Discarded real health for " + uniqueId + ": another server stored version "
+                    + currentVersion + " of the shared record in the meantime");
+                knownVersions.remove(uniqueId);
+                return 0L;
+            }
+            long owner = current == null ? serverId : current.owner();
+            writeRecord(channel, new Record(currentVersion + 1L, value, owner, System.currentTimeMillis()));
+            knownVersions.put(uniqueId, currentVersion + 1L);
+            return (long) RECORD_SIZE;
+        });
+    }
+
+    /**
+     * Indicates whether this server holds a claim on a player, from an earlier {@link #acquire}
+     * or write that has not been released or lost to another server since.
+     *
+     * @param uniqueId unique ID of the player
+     * @return {@code true} when this server holds the player
+     */
+    boolean holds(UUID uniqueId) {
+        return knownVersions.containsKey(uniqueId);
+    }
+
+    /**
+     * Gives up this server's claim on a player so another server can acquire them without waiting.
+     * Does nothing when another server has written the record since.
+     *
+     * @param uniqueId unique ID of the player
+     * @throws IOException when the record cannot be read or written
+     */
+    void release(UUID uniqueId) throws IOException {
+        Long known = knownVersions.remove(uniqueId);
+        if (known == null) {
+            return;
+        }
+        locked(uniqueId, false, channel -> {
+            Record current = readRecord(channel);
+            if (current != null && current.version() == known && current.owner() == serverId) {
+                writeRecord(channel, new Record(current.version() + 1L, current.value(), 0L, System.currentTimeMillis()));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Releases every player this server still holds.
+     *
+     * @throws IOException when a record could not be released; the rest are still attempted
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (UUID uniqueId : knownVersions.keySet()) {
+            try {
+                release(uniqueId);
+            } catch (IOException exception) {
+                if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Runs an action on a player's record file while holding an exclusive lock on it. Servers
+     * sharing one JVM cannot hold overlapping file locks, so the lock is taken under a monitor
+     * striped by file as well.
+     *
+     * @param uniqueId unique ID of the player
+     * @param create   whether to create the file when it does not exist
+     * @param action   action reading or writing the locked file
+     * @param <T>      result type
+     * @return the action's result, or {@code null} when the file does not exist and was not created
+     * @throws IOException when the file cannot be opened, locked, read or written
+     */
+    private <T> T locked(UUID uniqueId, boolean create, LockedAction<T> action) throws IOException {
+        Path file = directory.resolve(uniqueId + ".dat");
+        synchronized (MONITORS[Math.floorMod(uniqueId.hashCode(), MONITORS.length)]) {
+            if (!create && !Files.exists(file)) {
+                return action.apply(null);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                return action.apply(channel);
+            }
+        }
+    }
+
+    /**
+     * Reads the record from a locked file.
+     *
+     * @param channel locked file, or {@code null} when it does not exist
+     * @return record, or {@code null} when the file is missing, empty or torn
+     * @throws IOException when the file cannot be read
+     */
+    private static Record readRecord(FileChannel channel) throws IOException {
+        if (channel == null || channel.size() < RECORD_SIZE) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // Keep reading until the whole record is in.
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            throw new IOException("Unrecognized shared real health record format");
+        }
+        return new Record(buffer.getLong(), buffer.getDouble(), buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Writes a record into a locked file and forces it to disk, so the next server to lock the file
+     * sees it even on a network file system.
+     *
+     * @param channel locked file, or {@code null} when the record was never stored
+     * @param record  record to write
+     * @throws IOException when the file cannot be written
+     */
+    private static void writeRecord(FileChannel channel, Record record) throws IOException {
+        if (channel == null) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(record.version()).putDouble(record.value())
+            .putLong(record.owner()).putLong(record.updatedAt());
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, buffer.position());
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Action performed on a locked record file.
+     *
+     * @param <T> result type
+     */
+    @FunctionalInterface
+    private interface LockedAction<T> {
+
+        /**
+         * Performs the action.
+         *
+         * @param channel locked file, or {@code null} when it does not exist
+         * @return action result
+         * @throws IOException when the file cannot be read or written
+         */
+        T apply(FileChannel channel) throws IOException;
+    }
+
+    /**
+     * Contents of one record file.
+     *
+     * @param version   number of writes the record has seen
+     * @param value     stored real health
+     * @param owner     ID of the server holding the player, {@code 0} when released
+     * @param updatedAt epoch milliseconds of the last write
+     */
+    private record Record(long version, double value, long owner, long updatedAt) {
+    }
+}
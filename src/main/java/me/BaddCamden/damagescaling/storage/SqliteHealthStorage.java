@@ -0,0 +1,136 @@
+package me.BaddCamden.damagescaling.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Stores every player's real health in one table of an embedded SQLite database, using the JDBC
+ * driver bundled with the server. A batch of queued saves is written with a single prepared
+ * statement inside one transaction, so a bulk save costs one commit instead of one per player.
+ *
+ * <p>Schema: {@code real_health(uuid BLOB PRIMARY KEY, health REAL, updated_at INTEGER)}, where
+ * {@code uuid} holds the UUID's 16 bytes and {@code updated_at} the epoch millisecond timestamp of
+ * the last write. The database runs in WAL mode so reads on the login thread do not wait for a
+ * commit to reach the disk.
+ */
+final class SqliteHealthStorage implements HealthStorage {
+
+    private static final String DRIVER_CLASS = "org.sqlite.JDBC";
+    private static final long ROW_BYTES = 32L;
+
+    private final Connection connection;
+    private final PreparedStatement select;
+    private final PreparedStatement upsert;
+
+    /**
+     * Opens or creates the database file and its table.
+     *
+     * @param file database file
+     * @throws IOException when the driver is missing or the database cannot be opened
+     */
+    SqliteHealthStorage(File file) throws IOException {
+        try {
+            Class.forName(DRIVER_CLASS);
+        } catch (ClassNotFoundException exception) {
+            throw new IOException("SQLite JDBC driver " + DRIVER_CLASS + " is not available on this server", exception);
+        }
+
+        Connection opened = null;
+        try {
+            opened = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+            try (Statement statement = opened.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.execute("CREATE TABLE IF NOT EXISTS real_health (uuid BLOB PRIMARY KEY, "
+                    + "health REAL NOT NULL, updated_at INTEGER NOT NULL) WITHOUT ROWID");
+            }
+            opened.setAutoCommit(false);
+            this.select = opened.prepareStatement("SELECT health FROM real_health WHERE uuid = ?");
+            this.upsert = opened.prepareStatement(
+                "INSERT OR REPLACE INTO real_health (uuid, health, updated_at) VALUES (?, ?, ?)");
+            this.connection = opened;
+        } catch (SQLException exception) {
+            if (opened != null) {
+                try {
+                    opened.close();
+                } catch (SQLException closeFailure) {
+                    exception.addSuppressed(closeFailure);
+                }
+            }
+            throw new IOException("Failed to open SQLite database " + file.getAbsolutePath(), exception);
+        }
+    }
+
+    @Override
+    public synchronized double read(UUID uniqueId) throws IOException {
+        try {
+            select.setBytes(1, toBytes(uniqueId));
+            try (ResultSet result = select.executeQuery()) {
+                return result.next() ? result.getDouble(1) : Double.NaN;
+            } finally {
+                connection.commit();
+            }
+        } catch (SQLException exception) {
+            throw new IOException("Failed to read real health for " + uniqueId, exception);
+        }
+    }
+
+    @Override
+    public long write(UUID uniqueId, double value) throws IOException {
+        return writeBatch(new UUID[] {uniqueId}, new double[] {value}, 1);
+    }
+
+    @Override
+    public synchronized long writeBatch(UUID[] ids, double[] values, int count) throws IOException {
+        long now = System.currentTimeMillis();
+        try {
+            for (int i = 0; i < count; i++) {
+                upsert.setBytes(1, toBytes(ids[i]));
+                upsert.setDouble(2, values[i]);
+                upsert.setLong(3, now);
+                upsert.addBatch();
+            }
+            upsert.executeBatch();
+            connection.commit();
+            return count * ROW_BYTES;
+        } catch (SQLException exception) {
+            try {
+                upsert.clearBatch();
+                connection.rollback();
+            } catch (SQLException rollbackFailure) {
+                exception.addSuppressed(rollbackFailure);
+            }
+            throw new IOException("Failed to write a batch of " + count + " real health value(s)", exception);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            connection.close();
+        } catch (SQLException exception) {
+            throw new IOException("Failed to close SQLite database", exception);
+        }
+    }
+
+    /**
+     * Encodes a UUID as its 16 big-endian bytes.
+     *
+     * @param uniqueId UUID to encode
+     * @return most significant bits followed by least significant bits
+     */
+    private static byte[] toBytes(UUID uniqueId) {
+        return ByteBuffer.allocate(16)
+            .putLong(uniqueId.getMostSignificantBits())
+            .putLong(uniqueId.getLeastSignificantBits())
+            .array();
+    }
+}
@@ -0,0 +1,110 @@
+package me.BaddCamden.damagescaling.storage;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.UUID;
+
+/**
+ * Stores each player's real health in its own {@code playerdata/<uuid>.yml} file.
+ */
+final class YamlHealthStorage implements HealthStorage {
+
+    private static final String REAL_HEALTH_KEY = "real-health";
+
+    private final File dataFolder;
+
+    /**
+     * Creates a YAML backend rooted at the given directory.
+     *
+     * @param dataFolder directory holding one YAML file per player
+     */
+    YamlHealthStorage(File dataFolder) {
+        this.dataFolder = dataFolder;
+    }
+
+    /**
+     * Indicates whether the backing directory exists, letting callers skip lookups for servers
+     * that never used this backend.
+     *
+     * @return {@code true} when the player data directory is present
+     */
+    boolean exists() {
+        return dataFolder.isDirectory();
+    }
+
+    /**
+     * Returns the directory holding the per-player files.
+     *
+     * @return player data directory, which may not exist
+     */
+    File getDataFolder() {
+        return dataFolder;
+    }
+
+    /**
+     * Parses the contents of a player file. Files written by this backend hold a single
+     * {@code real-health: <value>} line, which is read directly; anything else goes through the
+     * YAML parser.
+     *
+     * @param data raw file contents
+     * @return stored real health, or {@link Double#NaN} when the file holds no valid value
+     */
+    static double parse(byte[] data) {
+        String text = new String(data, StandardCharsets.UTF_8).trim();
+        String prefix = REAL_HEALTH_KEY + ":";
+        if (text.startsWith(prefix) && text.indexOf('\n') < 0) {
+            try {
+                return Double.parseDouble(text.substring(prefix.length()).trim());
+            } catch (NumberFormatException ignored) {
+                // Not a plain number; let the YAML parser decide.
+            }
+        }
+
+        YamlConfiguration configuration = new YamlConfiguration();
+        try {
+            configuration.loadFromString(text);
+        } catch (InvalidConfigurationException exception) {
+            return Double.NaN;
+        }
+        return configuration.getDouble(REAL_HEALTH_KEY, Double.NaN);
+    }
+
+    @Override
+    public double read(UUID uniqueId) {
+        File file = playerFile(uniqueId);
+        if (!file.exists()) {
+            return Double.NaN;
+        }
+
+        YamlConfiguration configuration = YamlConfiguration.loadConfiguration(file);
+        return configuration.getDouble(REAL_HEALTH_KEY, Double.NaN);
+    }
+
+    @Override
+    public long write(UUID uniqueId, double value) throws IOException {
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.set(REAL_HEALTH_KEY, value);
+        byte[] data = configuration.saveToString().getBytes(StandardCharsets.UTF_8);
+        Files.write(playerFile(uniqueId).toPath(), data);
+        return data.length;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Resolves the YAML file used for persisting an individual player's data.
+     *
+     * @param uniqueId unique ID of the player
+     * @return file handle pointing to the player's data file
+     */
+    private File playerFile(UUID uniqueId) {
+        return new File(dataFolder, uniqueId.toString() + ".yml");
+    }
+}